@@ -0,0 +1,21 @@
+#!/usr/bin/env bash
+# JMH microbenchmarks: compiles the benchmarks under src/test and runs the
+# ones matching the given pattern (all of them without one). Extra
+# arguments go to JMH, e.g. -prof gc for allocation rates or -f/-wi/-i to
+# change forks and iterations.
+#
+# usage: scripts/benchmark.sh [pattern] [jmh options]
+#
+#   scripts/benchmark.sh ExpenseListBenchmark
+#   scripts/benchmark.sh CentsBenchmark -prof gc
+#
+# Needs Maven and a JDK 17 on the PATH. Run from the repository root.
+
+set -eu
+
+CLASSPATH_FILE=target/benchmark-classpath.txt
+
+mvn -B -q test-compile dependency:build-classpath \
+    -Dmdep.outputFile="$CLASSPATH_FILE" -Dmdep.includeScope=test
+
+exec java -cp "target/test-classes:target/classes:$(cat "$CLASSPATH_FILE")" org.openjdk.jmh.Main "$@"
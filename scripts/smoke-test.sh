@@ -0,0 +1,95 @@
+#!/usr/bin/env bash
+# Smoke test suite against a running instance (JVM or native image).
+# Walks through the main API flows with a throwaway user and checks status
+# codes and the ApiResponse success flag; the user is deleted at the end.
+#
+# usage: scripts/smoke-test.sh [base-url]     (default http://localhost:8080)
+# Needs bash and curl.
+
+set -u
+
+BASE=${1:-http://localhost:8080}
+RUN=$(date +%s)
+failures=0
+body=
+
+# check <description> <expected status> <method> <path> [json body]
+check() {
+    local description=$1 expected=$2 method=$3 path=$4 data=${5:-}
+    local status
+    if [ -n "$data" ]; then
+        status=$(curl -s -o /tmp/smoke-body.$$ -w '%{http_code}' -X "$method" "$BASE$path" \
+            -H 'Content-Type: application/json' -d "$data")
+    else
+        status=$(curl -s -o /tmp/smoke-body.$$ -w '%{http_code}' -X "$method" "$BASE$path")
+    fi
+    body=$(cat /tmp/smoke-body.$$)
+    # Successful /api responses must also carry "success":true
+    if [ "$status" = "$expected" ] && { [ "${status:0:1}" != 2 ] || [[ $path != /api/* ]] ||
+            [[ $body == *'"success":true'* ]]; }; then
+        echo "ok   $description"
+    else
+        echo "FAIL $description: $method $path returned $status"
+        echo "     ${body:0:300}"
+        failures=$((failures + 1))
+    fi
+}
+
+# Numeric "id" of the first object in the last response body
+last_id() {
+    sed -n 's/^[^{]*{[^{]*"data":{"id":\([0-9]*\).*/\1/p' <<< "$body"
+}
+
+check "health" 200 GET /actuator/health
+[ $failures -eq 0 ] || { echo "application not reachable at $BASE"; exit 1; }
+
+check "register user" 201 POST /api/users/register \
+    "{\"username\":\"smoke$RUN\",\"email\":\"smoke$RUN@example.com\",\"password\":\"secret1\"}"
+USER_ID=$(last_id)
+[ -n "$USER_ID" ] || { echo "registration returned no user id"; exit 1; }
+
+check "login" 200 POST /api/users/login "{\"username\":\"smoke$RUN\",\"password\":\"secret1\"}"
+check "default categories" 200 GET "/api/categories/user/$USER_ID"
+CATEGORY_ID=$(sed -n 's/^[^[]*"data":\[{"id":\([0-9]*\).*/\1/p' <<< "$body")
+
+TODAY=$(date +%F)
+check "add expense" 201 POST /api/expenses \
+    "{\"amount\":42.50,\"description\":\"Smoke lunch\",\"merchantName\":\"Cafe\",\"expenseDate\":\"$TODAY\",\"userId\":$USER_ID,\"categoryId\":$CATEGORY_ID}"
+EXPENSE_ID=$(last_id)
+check "update expense" 200 PUT "/api/expenses/$EXPENSE_ID" \
+    "{\"amount\":45.00,\"description\":\"Smoke lunch\",\"expenseDate\":\"$TODAY\",\"userId\":$USER_ID,\"categoryId\":$CATEGORY_ID}"
+check "list expenses" 200 GET "/api/expenses/user/$USER_ID"
+check "compact expenses" 200 GET "/api/expenses/user/$USER_ID/compact"
+check "search expenses" 200 GET "/api/expenses/user/$USER_ID/search?q=lunch"
+check "expense summary" 200 GET "/api/expenses/user/$USER_ID/summary"
+
+check "add credit" 201 POST /api/credits \
+    "{\"amount\":1000,\"source\":\"Employer\",\"creditDate\":\"$TODAY\",\"creditType\":\"SALARY\",\"userId\":$USER_ID}"
+check "credit total" 200 GET "/api/credits/user/$USER_ID/total"
+check "income trends" 200 GET "/api/credits/user/$USER_ID/analytics/monthly?months=3"
+
+check "add threshold" 201 POST /api/thresholds \
+    "{\"limitAmount\":40,\"thresholdType\":\"MONTHLY\",\"alertPercentage\":80,\"userId\":$USER_ID,\"categoryId\":$CATEGORY_ID}"
+check "threshold check" 200 GET "/api/thresholds/check/$USER_ID"
+check "alerts" 200 GET "/api/thresholds/alerts/$USER_ID"
+check "alert events" 200 GET "/api/thresholds/alerts/$USER_ID/events"
+
+check "monthly stats" 200 GET "/api/stats/monthly/$USER_ID"
+check "trends" 200 GET "/api/stats/trends/$USER_ID"
+if curl -sf -o /dev/null -H 'Accept: application/cbor' "$BASE/api/users/$USER_ID"; then
+    echo "ok   CBOR response"
+else
+    echo "FAIL CBOR response"
+    failures=$((failures + 1))
+fi
+
+check "unknown user is 404" 404 GET /api/users/999999999
+check "delete expense" 200 DELETE "/api/expenses/$EXPENSE_ID"
+check "delete user" 200 DELETE "/api/users/$USER_ID"
+
+rm -f /tmp/smoke-body.$$
+if [ $failures -gt 0 ]; then
+    echo "$failures check(s) failed"
+    exit 1
+fi
+echo "all checks passed"
@@ -0,0 +1,63 @@
+#!/usr/bin/env bash
+# Startup benchmark: time from launching the application to its first
+# successful HTTP response, and its resident set size at that point,
+# averaged over several runs. Works for the JVM and the native executable.
+#
+# usage: scripts/startup-benchmark.sh [runs] -- <command that starts the app>
+#
+#   scripts/startup-benchmark.sh 5 -- java -jar target/cashflow-backend-1.1.0.jar
+#   scripts/startup-benchmark.sh 5 -- java -XX:SharedArchiveFile=app.jsa \
+#       -Dspring.aot.enabled=true @jvm.args com.cashflow.CashflowApplication
+#   scripts/startup-benchmark.sh 5 -- target/cashflow-backend
+#
+# The probe URL defaults to the health endpoint; override with URL=...
+# Needs bash, curl, GNU date and /proc (RSS is read from /proc/<pid>/status).
+
+set -u
+
+RUNS=${1:-5}
+shift
+[ "${1:-}" = "--" ] && shift
+if [ $# -eq 0 ]; then
+    echo "usage: $0 [runs] -- <command that starts the app>" >&2
+    exit 1
+fi
+
+URL=${URL:-http://localhost:8080/actuator/health}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-180}
+
+total=0
+total_rss=0
+for run in $(seq 1 "$RUNS"); do
+    start=$(date +%s%N)
+    "$@" > "startup-run-$run.log" 2>&1 &
+    pid=$!
+
+    elapsed=
+    deadline=$((start + TIMEOUT_SECONDS * 1000000000))
+    while [ "$(date +%s%N)" -lt "$deadline" ]; do
+        if curl -sf -o /dev/null "$URL"; then
+            elapsed=$((($(date +%s%N) - start) / 1000000))
+            rss_kb=$(awk '/^VmRSS/ {print $2}' "/proc/$pid/status" 2>/dev/null)
+            break
+        fi
+        if ! kill -0 "$pid" 2>/dev/null; then
+            break
+        fi
+        sleep 0.05
+    done
+
+    kill "$pid" 2>/dev/null
+    wait "$pid" 2>/dev/null
+
+    if [ -z "$elapsed" ]; then
+        echo "run $run: no successful response, see startup-run-$run.log" >&2
+        exit 1
+    fi
+    echo "run $run: first successful request after ${elapsed} ms, RSS $((${rss_kb:-0} / 1024)) MB"
+    total=$((total + elapsed))
+    total_rss=$((total_rss + ${rss_kb:-0}))
+    rm -f "startup-run-$run.log"
+done
+
+echo "average over $RUNS runs: $((total / RUNS)) ms, RSS $((total_rss / RUNS / 1024)) MB"
@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+# Latency of the expense summary endpoints against a running instance.
+# Registers a throwaway user, adds EXPENSES expenses spread over its default
+# categories and the last year plus a few credits, then times REQUESTS
+# sequential calls of /summary and /summary/range (last 90 days) over one
+# keep-alive connection after WARMUP untimed ones. No If-None-Match is sent,
+# so every call computes the summary. The user is deleted at the end.
+#
+# usage: scripts/summary-latency.sh [base-url]     (default http://localhost:8080)
+#
+#   EXPENSES=2000 REQUESTS=500 scripts/summary-latency.sh
+#
+# Start the application with --app.rate-limit.enabled=false: the seeding
+# and the timed calls exceed the default limits. On H2 also add
+# ;OPTIMIZE_REUSE_RESULTS=FALSE to the JDBC URL, or H2 hands repeated
+# identical queries their previous result while the tables are unchanged,
+# which no server database does. Needs bash, curl, awk, GNU date and sort.
+
+set -u
+
+BASE=${1:-http://localhost:8080}
+EXPENSES=${EXPENSES:-2000}
+REQUESTS=${REQUESTS:-500}
+WARMUP=${WARMUP:-200}
+RUN=$(date +%s)
+
+post() {
+    curl -s -X POST "$BASE$1" -H 'Content-Type: application/json' -d "$2"
+}
+
+USER_ID=$(post /api/users/register \
+    "{\"username\":\"latency$RUN\",\"email\":\"latency$RUN@example.com\",\"password\":\"secret1\"}" |
+    sed -n 's/^[^{]*{[^{]*"data":{"id":\([0-9]*\).*/\1/p')
+[ -n "$USER_ID" ] || { echo "registration failed at $BASE" >&2; exit 1; }
+read -r -a CATEGORIES <<< "$(curl -s "$BASE/api/categories/user/$USER_ID" |
+    grep -o '"id":[0-9]*' | cut -d: -f2 | tr '\n' ' ')"
+
+echo "seeding $EXPENSES expenses over ${#CATEGORIES[@]} categories for user $USER_ID"
+for i in $(seq 1 "$EXPENSES"); do
+    category=${CATEGORIES[$((i % ${#CATEGORIES[@]}))]}
+    day=$(date -d "-$((i % 365)) days" +%F)
+    post /api/expenses "{\"amount\":$((i % 200 + 1)).$((i % 100)),\"description\":\"Latency $i\",\"expenseDate\":\"$day\",\"userId\":$USER_ID,\"categoryId\":$category}" > /dev/null
+done
+for month in $(seq 0 11); do
+    post /api/credits "{\"amount\":3000,\"source\":\"Employer\",\"creditDate\":\"$(date -d "-$month months" +%F)\",\"creditType\":\"SALARY\",\"userId\":$USER_ID}" > /dev/null
+done
+
+# measure <label> <url>: REQUESTS timed calls after WARMUP untimed ones
+measure() {
+    local label=$1 url=$2
+    local urls=()
+    for i in $(seq 1 $((WARMUP + REQUESTS))); do
+        urls+=(-o /dev/null "$url")
+    done
+    curl -s -w '%{http_code} %{time_total}\n' "${urls[@]}" | tail -n "$REQUESTS" | sort -k2 -n |
+        awk -v label="$label" '
+            $1 != 200 { failed++ }
+            { ms[NR] = $2 * 1000; total += $2 * 1000 }
+            END {
+                printf "%-16s mean %6.2f ms  p50 %6.2f  p95 %6.2f  p99 %6.2f  (%d calls, %d not 200)\n",
+                    label, total / NR, ms[int(NR * 0.50)], ms[int(NR * 0.95)], ms[int(NR * 0.99)], NR, failed
+            }'
+}
+
+measure "summary" "$BASE/api/expenses/user/$USER_ID/summary"
+measure "summary/range" "$BASE/api/expenses/user/$USER_ID/summary/range?startDate=$(date -d '-90 days' +%F)&endDate=$(date +%F)"
+
+curl -s -o /dev/null -X DELETE "$BASE/api/users/$USER_ID"
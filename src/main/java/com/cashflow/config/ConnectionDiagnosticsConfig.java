@@ -0,0 +1,41 @@
+package com.cashflow.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Connection hold diagnostics, enabled with app.datasource.diagnostics.enabled=true
+ * Wraps the application DataSource in a ConnectionHoldDataSource and exposes
+ * the results at /actuator/connectionholds.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.diagnostics.enabled", havingValue = "true")
+public class ConnectionDiagnosticsConfig {
+
+    @Bean
+    public ConnectionHoldEndpoint connectionHoldEndpoint(
+            @Value("${app.datasource.diagnostics.slow-hold:PT1S}") Duration slowHold) {
+        return new ConnectionHoldEndpoint(slowHold);
+    }
+
+    @Bean
+    public static BeanPostProcessor connectionHoldDataSourcePostProcessor(
+            ObjectProvider<ConnectionHoldEndpoint> endpoint) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                    return new ConnectionHoldDataSource(dataSource, endpoint.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package com.cashflow.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * DataSource wrapper that measures how long each connection is held and by whom
+ * The holder is the outermost service method (or its Spring proxy) on the
+ * stack when the connection is taken, which is normally the method that
+ * opened the transaction. Only installed in diagnostic mode: walking the stack on every
+ * checkout is too expensive for normal operation.
+ */
+public class ConnectionHoldDataSource extends DelegatingDataSource {
+
+    private static final String APP_PACKAGE = "com.cashflow.";
+    private static final String SERVICE_PACKAGE = "com.cashflow.service.";
+
+    private final ConnectionHoldEndpoint endpoint;
+
+    public ConnectionHoldDataSource(DataSource targetDataSource, ConnectionHoldEndpoint endpoint) {
+        super(targetDataSource);
+        this.endpoint = endpoint;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long started = System.nanoTime();
+        return track(super.getConnection(), started);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long started = System.nanoTime();
+        return track(super.getConnection(username, password), started);
+    }
+
+    private Connection track(Connection connection, long started) {
+        long acquired = System.nanoTime();
+        String holder = findHolder();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && !connection.isClosed()) {
+                        endpoint.record(holder, acquired - started, System.nanoTime() - acquired);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    /**
+     * Outermost application service frame, else the innermost application frame
+     */
+    private static String findHolder() {
+        List<StackWalker.StackFrame> frames = StackWalker.getInstance().walk(stream -> stream
+                .filter(frame -> frame.getClassName().startsWith(APP_PACKAGE))
+                .filter(frame -> !frame.getClassName().startsWith(ConnectionHoldDataSource.class.getName()))
+                .collect(Collectors.toList()));
+        if (frames.isEmpty()) {
+            return "other";
+        }
+        StackWalker.StackFrame holder = frames.get(0);
+        for (StackWalker.StackFrame frame : frames) {
+            if (frame.getClassName().startsWith(SERVICE_PACKAGE)) {
+                holder = frame;
+            }
+        }
+        // Transactions usually start in the Spring proxy (Service$$SpringCGLIB$$0) of the holder
+        String className = holder.getClassName().split("\\$\\$")[0];
+        return className.substring(className.lastIndexOf('.') + 1) + "." + holder.getMethodName();
+    }
+}
@@ -0,0 +1,61 @@
+package com.cashflow.config;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Actuator endpoint listing connection hold statistics per holding method
+ * GET /actuator/connectionholds (diagnostic mode, localhost only), longest hold first
+ */
+@Endpoint(id = "connectionholds")
+@Slf4j
+public class ConnectionHoldEndpoint {
+
+    private final Map<String, HoldStats> stats = new ConcurrentHashMap<>();
+    private final long slowHoldNanos;
+
+    public ConnectionHoldEndpoint(Duration slowHold) {
+        this.slowHoldNanos = slowHold.toNanos();
+    }
+
+    @ReadOperation
+    public List<HoldStats> connectionHolds() {
+        return stats.values().stream()
+                .sorted(Comparator.comparingDouble(HoldStats::getMaxHoldMs).reversed())
+                .collect(Collectors.toList());
+    }
+
+    void record(String holder, long acquireNanos, long holdNanos) {
+        stats.computeIfAbsent(holder, HoldStats::new).add(acquireNanos, holdNanos);
+        if (holdNanos > slowHoldNanos) {
+            log.warn("{} held a database connection for {} ms", holder, holdNanos / 1_000_000);
+        }
+    }
+
+    @Data
+    public static class HoldStats {
+
+        private final String method;
+        private long count;
+        private double totalHoldMs;
+        private double maxHoldMs;
+        private double maxAcquireMs;
+
+        synchronized void add(long acquireNanos, long holdNanos) {
+            double holdMs = holdNanos / 1_000_000.0;
+            count++;
+            totalHoldMs += holdMs;
+            maxHoldMs = Math.max(maxHoldMs, holdMs);
+            maxAcquireMs = Math.max(maxAcquireMs, acquireNanos / 1_000_000.0);
+        }
+    }
+}
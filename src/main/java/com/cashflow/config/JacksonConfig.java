@@ -0,0 +1,48 @@
+package com.cashflow.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Jackson configuration
+ * Spring Boot registers every Module bean with the shared ObjectMapper
+ */
+@Configuration
+public class JacksonConfig implements WebMvcConfigurer {
+
+    /**
+     * Replace reflective getter/setter access with generated lambdas
+     * Enable with app.jackson.blackbird.enabled=true
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.jackson.blackbird.enabled", havingValue = "true")
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * Serve CBOR to clients sending Accept: application/cbor
+     * Built from Boot's ObjectMapper builder so dates, modules and inclusion
+     * rules match the JSON responses.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Vary: Accept on API responses, and a CBOR-specific ETag
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RepresentationInterceptor()).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,70 @@
+package com.cashflow.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reachability metadata for the native image (mvn -Pnative native:compile)
+ * Spring AOT already covers repositories, controller signatures and the
+ * persistence unit; this adds what it cannot infer. DTOs are also serialized
+ * outside controller signatures (SSE alert events, DTOs nested in maps), and
+ * the Flyway scripts live in per-vendor folders.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.CashflowRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class CashflowRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Jackson: properties, constructors and nested types of every DTO
+            BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+            for (Class<?> dto : findClasses("com.cashflow.dto", classLoader)) {
+                bindings.registerReflectionHints(hints.reflection(), dto);
+            }
+
+            // Hibernate: field access and the no-arg constructor used for proxies and hydration
+            for (Class<?> entity : findClasses("com.cashflow.model", classLoader)) {
+                hints.reflection().registerType(entity, MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+
+            // Hibernate: id generator named in the entities' @GenericGenerator
+            hints.reflection().registerType(ShardAwareSequenceGenerator.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS);
+
+            hints.resources().registerPattern("db/migration/*/*.sql");
+        }
+
+        /**
+         * Top-level and static nested classes (Lombok builders) of a package, scanned at build time
+         */
+        private static List<Class<?>> findClasses(String basePackage, ClassLoader classLoader) {
+            ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+                @Override
+                protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                    return beanDefinition.getMetadata().isIndependent();
+                }
+            };
+            scanner.addIncludeFilter((metadataReader, metadataReaderFactory) -> true);
+
+            List<Class<?>> classes = new ArrayList<>();
+            for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                classes.add(ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader));
+            }
+            return classes;
+        }
+    }
+}
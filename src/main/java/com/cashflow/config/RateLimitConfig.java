@@ -0,0 +1,97 @@
+package com.cashflow.config;
+
+import com.cashflow.service.LocalRateLimitBackend;
+import com.cashflow.service.RateLimitBackend;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Per-user rate limits and admission control for the API
+ * Every /api request counts against the default bucket; AI chat, threshold
+ * checks, summaries/analytics and admin reports have their own, tighter
+ * buckets, and the expensive ones a cap on concurrent requests. Buckets are
+ * kept in process unless a RateLimitBackend bean is defined.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final RateLimitBackend backend;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.rate-limit.default.capacity:100}")
+    private int defaultCapacity;
+
+    @Value("${app.rate-limit.default.refill-period:PT0.05S}")
+    private Duration defaultRefillPeriod;
+
+    @Value("${app.rate-limit.ai.capacity:5}")
+    private int aiCapacity;
+
+    @Value("${app.rate-limit.ai.refill-period:PT12S}")
+    private Duration aiRefillPeriod;
+
+    @Value("${app.rate-limit.ai.max-concurrent:4}")
+    private int aiMaxConcurrent;
+
+    @Value("${app.rate-limit.threshold-check.capacity:10}")
+    private int thresholdCheckCapacity;
+
+    @Value("${app.rate-limit.threshold-check.refill-period:PT1S}")
+    private Duration thresholdCheckRefillPeriod;
+
+    @Value("${app.rate-limit.summary.capacity:30}")
+    private int summaryCapacity;
+
+    @Value("${app.rate-limit.summary.refill-period:PT0.5S}")
+    private Duration summaryRefillPeriod;
+
+    @Value("${app.rate-limit.summary.max-concurrent:8}")
+    private int summaryMaxConcurrent;
+
+    @Value("${app.rate-limit.report.capacity:5}")
+    private int reportCapacity;
+
+    @Value("${app.rate-limit.report.refill-period:PT6S}")
+    private Duration reportRefillPeriod;
+
+    @Value("${app.rate-limit.report.max-concurrent:2}")
+    private int reportMaxConcurrent;
+
+    @Value("${app.rate-limit.address-factor:10}")
+    private int addressFactor;
+
+    public RateLimitConfig(ObjectProvider<RateLimitBackend> backends, MeterRegistry meterRegistry,
+            @Value("${app.rate-limit.max-keys:100000}") int maxKeys) {
+        this.backend = backends.getIfAvailable(() -> new LocalRateLimitBackend(maxKeys));
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor("default", defaultCapacity, defaultRefillPeriod, 0))
+                .addPathPatterns("/api/**");
+        registry.addInterceptor(interceptor("ai", aiCapacity, aiRefillPeriod, aiMaxConcurrent))
+                .addPathPatterns("/api/ai/**");
+        registry.addInterceptor(interceptor("threshold-check", thresholdCheckCapacity, thresholdCheckRefillPeriod, 0))
+                .addPathPatterns("/api/thresholds/check/**");
+        registry.addInterceptor(interceptor("summary", summaryCapacity, summaryRefillPeriod, summaryMaxConcurrent))
+                .addPathPatterns("/api/expenses/user/*/summary/**", "/api/stats/**",
+                        "/api/credits/user/*/analytics/**");
+        registry.addInterceptor(interceptor("report", reportCapacity, reportRefillPeriod, reportMaxConcurrent))
+                .addPathPatterns("/api/admin/reports/**");
+    }
+
+    private RateLimitInterceptor interceptor(String endpointClass, int capacity, Duration refillPeriod,
+            int maxConcurrent) {
+        return new RateLimitInterceptor(endpointClass, capacity, refillPeriod, maxConcurrent, addressFactor,
+                backend, meterRegistry);
+    }
+}
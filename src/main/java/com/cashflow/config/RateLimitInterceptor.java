@@ -0,0 +1,149 @@
+package com.cashflow.config;
+
+import com.cashflow.exception.TooManyRequestsException;
+import com.cashflow.service.RateLimitBackend;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limit and admission control for one class of endpoints
+ * Each client gets a token bucket per class, keyed by the userId path
+ * variable, request parameter or JSON body property and otherwise by the
+ * client address. For handlers that read a body the bucket is charged by
+ * RateLimitBodyAdvice once the body is parsed. The userId is only what the
+ * client claims, so requests naming a user also draw from a bucket of the
+ * client address that is addressFactor times larger: users behind one proxy
+ * or NAT keep their own limits, while cycling through user ids gains at most
+ * that factor. Classes with a concurrency cap also admit at most that many
+ * requests at once and turn the rest away immediately instead of queueing
+ * them. Rejections are 429 with Retry-After, before the controller runs.
+ */
+@SuppressWarnings("unchecked")
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String DEFERRED_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".deferred";
+
+    private final String endpointClass;
+    private final int capacity;
+    private final long refillNanos;
+    private final int addressFactor;
+    private final Semaphore admission;
+    private final RateLimitBackend backend;
+    private final String admittedAttribute;
+    private final Counter rateRejected;
+    private final Counter busyRejected;
+
+    /**
+     * @param maxConcurrent requests admitted at once, 0 for no cap
+     * @param addressFactor size of a client address's bucket for requests naming a user, in user buckets
+     */
+    public RateLimitInterceptor(String endpointClass, int capacity, Duration refillPeriod, int maxConcurrent,
+            int addressFactor, RateLimitBackend backend, MeterRegistry meterRegistry) {
+        this.endpointClass = endpointClass;
+        this.capacity = capacity;
+        this.refillNanos = refillPeriod.toNanos();
+        this.addressFactor = Math.max(1, addressFactor);
+        this.admission = maxConcurrent > 0 ? new Semaphore(maxConcurrent) : null;
+        this.backend = backend;
+        this.admittedAttribute = RateLimitInterceptor.class.getName() + "." + endpointClass;
+        this.rateRejected = meterRegistry.counter("cashflow.rate-limit.rejected",
+                "class", endpointClass, "reason", "rate");
+        this.busyRejected = meterRegistry.counter("cashflow.rate-limit.rejected",
+                "class", endpointClass, "reason", "concurrency");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Async re-dispatches (SSE, deferred results) were already admitted
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        Long userId = RequestUserIds.fromUrl(request);
+        if (userId == null && readsBody(handler)) {
+            deferred(request).add(this);
+        } else {
+            acquire(request, userId);
+        }
+        if (admission != null) {
+            if (!admission.tryAcquire()) {
+                busyRejected.increment();
+                throw new TooManyRequestsException("The server is busy, please retry shortly", 1);
+            }
+            request.setAttribute(admittedAttribute, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        if (request.getAttribute(admittedAttribute) != null) {
+            request.removeAttribute(admittedAttribute);
+            admission.release();
+        }
+        // A body that never parsed still costs its address a request
+        List<RateLimitInterceptor> pending = (List<RateLimitInterceptor>) request.getAttribute(DEFERRED_ATTRIBUTE);
+        if (pending != null && pending.remove(this)) {
+            backend.tryAcquire(endpointClass + ":addr:" + request.getRemoteAddr(), capacity, refillNanos);
+        }
+    }
+
+    /**
+     * Charge the buckets of the requests deferred until their body was read
+     */
+    static void acquireDeferred(HttpServletRequest request, Long userId) {
+        List<RateLimitInterceptor> pending = (List<RateLimitInterceptor>) request.getAttribute(DEFERRED_ATTRIBUTE);
+        request.removeAttribute(DEFERRED_ATTRIBUTE);
+        if (pending != null) {
+            for (RateLimitInterceptor interceptor : pending) {
+                interceptor.acquire(request, userId);
+            }
+        }
+    }
+
+    private void acquire(HttpServletRequest request, Long userId) {
+        String address = request.getRemoteAddr();
+        if (userId == null) {
+            check(backend.tryAcquire(endpointClass + ":addr:" + address, capacity, refillNanos));
+            return;
+        }
+        check(backend.tryAcquire(endpointClass + ":user:" + userId, capacity, refillNanos));
+        check(backend.tryAcquire(endpointClass + ":users-of:" + address,
+                capacity * addressFactor, refillNanos / addressFactor));
+    }
+
+    private void check(long waitNanos) {
+        if (waitNanos > 0) {
+            rateRejected.increment();
+            throw new TooManyRequestsException("Too many requests, please slow down",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)));
+        }
+    }
+
+    private static List<RateLimitInterceptor> deferred(HttpServletRequest request) {
+        List<RateLimitInterceptor> pending = (List<RateLimitInterceptor>) request.getAttribute(DEFERRED_ATTRIBUTE);
+        if (pending == null) {
+            pending = new ArrayList<>();
+            request.setAttribute(DEFERRED_ATTRIBUTE, pending);
+        }
+        return pending;
+    }
+
+    private static boolean readsBody(Object handler) {
+        return handler instanceof HandlerMethod method && Arrays.stream(method.getMethodParameters())
+                .anyMatch(parameter -> parameter.hasParameterAnnotation(RequestBody.class));
+    }
+}
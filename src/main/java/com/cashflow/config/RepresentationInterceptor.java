@@ -0,0 +1,39 @@
+package com.cashflow.config;
+
+import com.cashflow.service.DataVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.HeaderContentNegotiationStrategy;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Marks API responses as varying by Accept and notes when CBOR is negotiated
+ * Every endpoint can answer in JSON or CBOR, so caches have to key on
+ * Accept; DataVersionService folds the representation into the ETag.
+ * Follows the Accept order MVC uses to pick a converter, with JSON winning
+ * wildcards because its converter comes first.
+ */
+class RepresentationInterceptor implements HandlerInterceptor {
+
+    private final HeaderContentNegotiationStrategy negotiation = new HeaderContentNegotiationStrategy();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws HttpMediaTypeNotAcceptableException {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        for (MediaType type : negotiation.resolveMediaTypes(new ServletWebRequest(request))) {
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                break;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                request.setAttribute(DataVersionService.REPRESENTATION_ATTRIBUTE, "cbor");
+                break;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,60 @@
+package com.cashflow.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * The user id a request names, from its URL or its JSON body
+ * Shared by the shard routing and the rate limits so both attribute a
+ * request to the same user.
+ */
+final class RequestUserIds {
+
+    private RequestUserIds() {
+    }
+
+    /**
+     * The userId path variable, else the userId request parameter, or null
+     */
+    @SuppressWarnings("unchecked")
+    static Long fromUrl(HttpServletRequest request) {
+        Map<String, String> pathVariables = (Map<String, String>) request.getAttribute(
+                HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        Long userId = parseId(pathVariables != null ? pathVariables.get("userId") : null);
+        return userId != null ? userId : parseId(request.getParameter("userId"));
+    }
+
+    /**
+     * The userId property of a request body (DTO or JSON map), or null
+     */
+    static Long fromBody(Object body) {
+        if (body == null) {
+            return null;
+        }
+        Object userId;
+        if (body instanceof Map<?, ?> map) {
+            userId = map.get("userId");
+        } else {
+            BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(body);
+            userId = wrapper.isReadableProperty("userId") ? wrapper.getPropertyValue("userId") : null;
+        }
+        return userId instanceof Number number ? Long.valueOf(number.longValue())
+                : userId != null ? parseId(userId.toString()) : null;
+    }
+
+    static Long parseId(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            // The controller rejects it
+            return null;
+        }
+    }
+}
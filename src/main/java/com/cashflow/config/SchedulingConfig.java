@@ -0,0 +1,12 @@
+package com.cashflow.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (recurring expenses, threshold sweep)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,51 @@
+package com.cashflow.config;
+
+import com.cashflow.service.ShardContext;
+import com.cashflow.service.ShardIds;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.OptimizerDescriptor;
+import org.hibernate.id.enhanced.OptimizerFactory;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pooled sequence generator that draws ids from the current shard's sequence
+ * A plain pooled generator keeps one in-memory block of values per entity,
+ * which would hand values of one shard's sequence to rows of another. This
+ * one keeps a block per shard and tags each value with its shard
+ * (ShardIds); shard 0 behaves exactly like the standard generator.
+ */
+public class ShardAwareSequenceGenerator extends SequenceStyleGenerator {
+
+    private final Map<Integer, Optimizer> shardOptimizers = new ConcurrentHashMap<>();
+    private OptimizerDescriptor optimizerDescriptor;
+
+    @Override
+    protected OptimizerDescriptor determineOptimizationStrategy(Properties params, int incrementSize) {
+        optimizerDescriptor = super.determineOptimizationStrategy(params, incrementSize);
+        return optimizerDescriptor;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        int shard = ShardContext.current();
+        if (shard == 0) {
+            return super.generate(session, object);
+        }
+        Optimizer optimizer = shardOptimizers.computeIfAbsent(shard, s -> OptimizerFactory.buildOptimizer(
+                optimizerDescriptor, getIdentifierType().getReturnedClass(),
+                getOptimizer().getIncrementSize(), getDatabaseStructure().getInitialValue()));
+        Number localId = (Number) optimizer.generate(getDatabaseStructure().buildCallback(session));
+        return ShardIds.toGlobalId(shard, localId.longValue());
+    }
+
+    @Override
+    public boolean supportsBulkInsertionIdentifierGeneration() {
+        // An INSERT ... SELECT would take raw sequence values without the shard
+        return false;
+    }
+}
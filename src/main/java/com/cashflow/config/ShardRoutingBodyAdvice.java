@@ -0,0 +1,63 @@
+package com.cashflow.config;
+
+import com.cashflow.dto.UserDTO;
+import com.cashflow.service.ShardContext;
+import com.cashflow.service.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Picks the shard of a request the URL did not route, from its JSON body
+ * Bodies with a userId (expenses, credits, categories, thresholds, AI chat)
+ * go to that user's shard. User bodies (register, login) go to the shard of
+ * the user with that username or email, so duplicates and logins are
+ * resolved there, and otherwise to the shard a new user is placed on.
+ * Runs after the body is read and before the controller starts a transaction.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ShardRoutingBodyAdvice extends RequestBodyAdviceAdapter {
+
+    private final ShardRouter shardRouter;
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+            Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+            Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        if (ShardContext.isSet()) {
+            return body;
+        }
+        if (body instanceof UserDTO user) {
+            ShardContext.set(locateUser(user));
+            return body;
+        }
+        Long id = RequestUserIds.fromBody(body);
+        if (id != null) {
+            ShardContext.set(shardRouter.shardOf(id));
+        }
+        return body;
+    }
+
+    private int locateUser(UserDTO user) {
+        String username = user.getUsername();
+        String email = user.getEmail();
+        int shard = username != null ? shardRouter.findUserShard(users -> users.existsByUsername(username)) : -1;
+        if (shard < 0 && email != null) {
+            shard = shardRouter.findUserShard(users -> users.existsByEmail(email));
+        }
+        return shard >= 0 ? shard : shardRouter.shardForNewUser(username);
+    }
+}
@@ -0,0 +1,61 @@
+package com.cashflow.config;
+
+import com.cashflow.service.ShardContext;
+import com.cashflow.service.ShardRouter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Picks the shard of a request from the ids in its URL
+ * The userId path variable or request parameter wins, then the id path
+ * variable (any entity id names its shard) and finally a username path
+ * variable, which is looked up on every shard. Requests with none of these
+ * are left to ShardRoutingBodyAdvice or run on shard 0.
+ */
+public class ShardRoutingInterceptor implements AsyncHandlerInterceptor {
+
+    private final ShardRouter shardRouter;
+
+    public ShardRoutingInterceptor(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ShardContext.clear();
+        Map<String, String> pathVariables = (Map<String, String>) request.getAttribute(
+                HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (pathVariables == null) {
+            pathVariables = Map.of();
+        }
+
+        Long id = RequestUserIds.fromUrl(request);
+        if (id == null) {
+            id = RequestUserIds.parseId(pathVariables.get("id"));
+        }
+        if (id != null) {
+            ShardContext.set(shardRouter.shardOf(id));
+        } else if (pathVariables.containsKey("username")) {
+            String username = pathVariables.get("username");
+            ShardContext.set(Math.max(0, shardRouter.findUserShard(users -> users.existsByUsername(username))));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        ShardContext.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        ShardContext.clear();
+    }
+}
@@ -0,0 +1,98 @@
+package com.cashflow.config;
+
+import com.cashflow.service.ShardIds;
+import com.cashflow.service.ShardRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sharded data layout, active with app.sharding.enabled=true
+ * Each user and all of its rows live on one of shard-count databases of the
+ * same vendor. Shard 0 is built from spring.datasource.* (so the existing
+ * database becomes shard 0); shard i starts from the same settings and is
+ * overridden by app.sharding.shards[i].* (any Hikari property, jdbc-url
+ * required). Flyway migrates every shard on startup. Requests are routed by
+ * the ids they carry (ShardRoutingInterceptor, ShardRoutingBodyAdvice).
+ * Not combined with the read replica configuration.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ShardingConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<ShardRouter> shardRouter;
+
+    public ShardingConfig(ObjectProvider<ShardRouter> shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+            MeterRegistry meterRegistry, @Value("${app.sharding.shard-count:1}") int shardCount) {
+        if (shardCount < 1 || shardCount > ShardIds.MAX_SHARDS) {
+            throw new IllegalArgumentException("app.sharding.shard-count must be between 1 and " + ShardIds.MAX_SHARDS);
+        }
+        Binder binder = Binder.get(environment);
+        List<HikariDataSource> shards = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            String prefix = "app.sharding.shards[" + shard + "]";
+            if (shard > 0 && !environment.containsProperty(prefix + ".jdbc-url")) {
+                throw new IllegalStateException(prefix + ".jdbc-url is required for shard-count " + shardCount);
+            }
+            HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+            binder.bind(prefix, Bindable.ofInstance(dataSource));
+            dataSource.setPoolName("shard-" + shard);
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            shards.add(dataSource);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    /**
+     * Apply the migrations to every shard, not only the default one
+     */
+    @Bean
+    public FlywayMigrationStrategy shardMigrationStrategy() {
+        return flyway -> {
+            List<HikariDataSource> shards;
+            try {
+                shards = flyway.getConfiguration().getDataSource().unwrap(ShardRoutingDataSource.class).getShards();
+            } catch (SQLException e) {
+                throw new IllegalStateException("Flyway is not configured with the shard routing DataSource", e);
+            }
+            for (HikariDataSource shard : shards) {
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(shard)
+                        .load()
+                        .migrate();
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ShardRoutingInterceptor(shardRouter.getObject()));
+    }
+}
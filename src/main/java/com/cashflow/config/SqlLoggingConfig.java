@@ -0,0 +1,37 @@
+package com.cashflow.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Opt-in sampled SQL logging
+ * With app.sql-log.sample-rate above 0, that fraction of statements is
+ * logged (logger com.cashflow.sql.sample) instead of every statement as
+ * org.hibernate.SQL=DEBUG would. Slow statements are logged separately by
+ * Hibernate (hibernate.log_slow_query, logger org.hibernate.SQL_SLOW).
+ */
+@Configuration
+@Slf4j(topic = "com.cashflow.sql.sample")
+public class SqlLoggingConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sampledSqlLoggingCustomizer(
+            @Value("${app.sql-log.sample-rate:0}") double sampleRate) {
+        return properties -> {
+            if (sampleRate > 0) {
+                properties.put("hibernate.session_factory.statement_inspector", (StatementInspector) sql -> {
+                    if (ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                        log.info(sql);
+                    }
+                    return sql;
+                });
+            }
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package com.cashflow.controller;
+
+import com.cashflow.dto.ApiResponse;
+import com.cashflow.dto.CategorySpendingReportDTO;
+import com.cashflow.service.AdminReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * REST Controller for cross-user reports (operations)
+ * Only aggregates are returned, never per-user rows
+ * Off unless app.admin-reports.enabled=true, and then answered to localhost only
+ */
+@RestController
+@ConditionalOnProperty(name = "app.admin-reports.enabled", havingValue = "true")
+@RequestMapping("/api/admin/reports")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class AdminReportController {
+
+    private final AdminReportService adminReportService;
+
+    /**
+     * Get spending per category across all users
+     * GET /api/admin/reports/category-spending?startDate=2026-07-01&endDate=2026-09-30
+     */
+    @GetMapping("/category-spending")
+    public ResponseEntity<ApiResponse<CategorySpendingReportDTO>> getCategorySpending(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        CategorySpendingReportDTO report = adminReportService.getCategorySpending(startDate, endDate);
+        return ResponseEntity.ok(ApiResponse.success(report));
+    }
+}
@@ -3,6 +3,7 @@ package com.cashflow.controller;
 import com.cashflow.dto.ApiResponse;
 import com.cashflow.service.AiService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -10,7 +11,9 @@ import java.util.Map;
 
 /**
  * REST Controller for AI Chat functionality
+ * Lazy (as is AiService), so neither is created until the first chat request
  */
+@Lazy
 @RestController
 @RequestMapping("/api/ai")
 @RequiredArgsConstructor
@@ -55,6 +55,18 @@ public class CategoryController {
         return ResponseEntity.ok(ApiResponse.success(categories));
     }
 
+    /**
+     * Search categories for a user by name
+     * GET /api/categories/user/{userId}/search?q=food
+     */
+    @GetMapping("/user/{userId}/search")
+    public ResponseEntity<ApiResponse<List<CategoryDTO>>> searchCategories(
+            @PathVariable Long userId,
+            @RequestParam("q") String searchTerm) {
+        List<CategoryDTO> categories = categoryService.searchCategories(userId, searchTerm);
+        return ResponseEntity.ok(ApiResponse.success(categories));
+    }
+
     /**
      * Update category
      * PUT /api/categories/{id}
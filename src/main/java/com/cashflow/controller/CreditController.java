@@ -1,14 +1,18 @@
 package com.cashflow.controller;
 
 import com.cashflow.dto.ApiResponse;
+import com.cashflow.dto.CreditBreakdownDTO;
 import com.cashflow.dto.CreditDTO;
+import com.cashflow.dto.IncomeTrendDTO;
 import com.cashflow.service.CreditService;
+import com.cashflow.service.DataVersionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -25,6 +29,7 @@ import java.util.List;
 public class CreditController {
 
     private final CreditService creditService;
+    private final DataVersionService dataVersionService;
 
     /**
      * Add a new credit
@@ -53,7 +58,12 @@ public class CreditController {
      * GET /api/credits/user/{userId}
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<ApiResponse<List<CreditDTO>>> getCreditsByUserId(@PathVariable Long userId) {
+    public ResponseEntity<ApiResponse<List<CreditDTO>>> getCreditsByUserId(
+            @PathVariable Long userId,
+            WebRequest request) {
+        if (request.checkNotModified(dataVersionService.getETag(userId))) {
+            return null;
+        }
         List<CreditDTO> credits = creditService.getCreditsByUserId(userId);
         return ResponseEntity.ok(ApiResponse.success(credits));
     }
@@ -63,7 +73,12 @@ public class CreditController {
      * GET /api/credits/user/{userId}/total
      */
     @GetMapping("/user/{userId}/total")
-    public ResponseEntity<ApiResponse<BigDecimal>> getTotalCredits(@PathVariable Long userId) {
+    public ResponseEntity<ApiResponse<BigDecimal>> getTotalCredits(
+            @PathVariable Long userId,
+            WebRequest request) {
+        if (request.checkNotModified(dataVersionService.getETag(userId))) {
+            return null;
+        }
         BigDecimal totalCredits = creditService.getTotalCredits(userId);
         return ResponseEntity.ok(ApiResponse.success("Total credits retrieved", totalCredits));
     }
@@ -76,7 +91,11 @@ public class CreditController {
     public ResponseEntity<ApiResponse<List<CreditDTO>>> getCreditsByDateRange(
             @PathVariable Long userId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            WebRequest request) {
+        if (request.checkNotModified(dataVersionService.getETag(userId))) {
+            return null;
+        }
         List<CreditDTO> credits = creditService.getCreditsByDateRange(userId, startDate, endDate);
         return ResponseEntity.ok(ApiResponse.success(credits));
     }
@@ -88,11 +107,61 @@ public class CreditController {
     @GetMapping("/user/{userId}/source/{source}")
     public ResponseEntity<ApiResponse<List<CreditDTO>>> getCreditsBySource(
             @PathVariable Long userId,
-            @PathVariable String source) {
+            @PathVariable String source,
+            WebRequest request) {
+        if (request.checkNotModified(dataVersionService.getETag(userId))) {
+            return null;
+        }
         List<CreditDTO> credits = creditService.getCreditsBySource(userId, source);
         return ResponseEntity.ok(ApiResponse.success(credits));
     }
 
+    /**
+     * Get income breakdown by credit type
+     * GET /api/credits/user/{userId}/analytics/by-type
+     */
+    @GetMapping("/user/{userId}/analytics/by-type")
+    public ResponseEntity<ApiResponse<List<CreditBreakdownDTO>>> getCreditSummaryByType(
+            @PathVariable Long userId,
+            WebRequest request) {
+        if (request.checkNotModified(dataVersionService.getETag(userId))) {
+            return null;
+        }
+        List<CreditBreakdownDTO> breakdown = creditService.getCreditSummaryByType(userId);
+        return ResponseEntity.ok(ApiResponse.success(breakdown));
+    }
+
+    /**
+     * Get income breakdown by source
+     * GET /api/credits/user/{userId}/analytics/by-source
+     */
+    @GetMapping("/user/{userId}/analytics/by-source")
+    public ResponseEntity<ApiResponse<List<CreditBreakdownDTO>>> getCreditSummaryBySource(
+            @PathVariable Long userId,
+            WebRequest request) {
+        if (request.checkNotModified(dataVersionService.getETag(userId))) {
+            return null;
+        }
+        List<CreditBreakdownDTO> breakdown = creditService.getCreditSummaryBySource(userId);
+        return ResponseEntity.ok(ApiResponse.success(breakdown));
+    }
+
+    /**
+     * Get monthly income, spending and savings rate
+     * GET /api/credits/user/{userId}/analytics/monthly?months=12
+     */
+    @GetMapping("/user/{userId}/analytics/monthly")
+    public ResponseEntity<ApiResponse<List<IncomeTrendDTO>>> getIncomeTrends(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "12") int months,
+            WebRequest request) {
+        if (request.checkNotModified(dataVersionService.getETag(userId, LocalDate.now().withDayOfMonth(1), months))) {
+            return null;
+        }
+        List<IncomeTrendDTO> trends = creditService.getIncomeTrends(userId, Math.min(months, 60));
+        return ResponseEntity.ok(ApiResponse.success(trends));
+    }
+
     /**
      * Update credit
      * PUT /api/credits/{id}
@@ -2,7 +2,10 @@ package com.cashflow.controller;
 
 import com.cashflow.dto.ApiResponse;
 import com.cashflow.dto.ExpenseDTO;
+import com.cashflow.dto.ExpenseListDTO;
+import com.cashflow.dto.ExpenseSearchResultDTO;
 import com.cashflow.dto.ExpenseSummaryDTO;
+import com.cashflow.service.DataVersionService;
 import com.cashflow.service.ExpenseService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +13,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -25,6 +29,7 @@ import java.util.List;
 public class ExpenseController {
 
     private final ExpenseService expenseService;
+    private final DataVersionService dataVersionService;
 
     /**
      * Add a new expense
@@ -53,17 +58,64 @@ public class ExpenseController {
      * GET /api/expenses/user/{userId}
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<ApiResponse<List<ExpenseDTO>>> getExpensesByUserId(@PathVariable Long userId) {
+    public ResponseEntity<ApiResponse<List<ExpenseDTO>>> getExpensesByUserId(
+            @PathVariable Long userId,
+            WebRequest request) {
+        if (request.checkNotModified(dataVersionService.getETag(userId))) {
+            return null;
+        }
         List<ExpenseDTO> expenses = expenseService.getExpensesByUserId(userId);
         return ResponseEntity.ok(ApiResponse.success(expenses));
     }
 
+    /**
+     * Get all expenses for a user without repeating user/category fields per row
+     * GET /api/expenses/user/{userId}/compact
+     */
+    @GetMapping("/user/{userId}/compact")
+    public ResponseEntity<ApiResponse<ExpenseListDTO>> getCompactExpensesByUserId(
+            @PathVariable Long userId,
+            WebRequest request) {
+        if (request.checkNotModified(dataVersionService.getETag(userId))) {
+            return null;
+        }
+        ExpenseListDTO expenses = expenseService.getCompactExpensesByUserId(userId);
+        return ResponseEntity.ok(ApiResponse.success(expenses));
+    }
+
+    /**
+     * Search a user's expenses by description and merchant name
+     * GET /api/expenses/user/{userId}/search?q=coffee&categoryId=1&startDate=2026-01-01&endDate=2026-01-31
+     */
+    @GetMapping("/user/{userId}/search")
+    public ResponseEntity<ApiResponse<ExpenseSearchResultDTO>> searchExpenses(
+            @PathVariable Long userId,
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest request) {
+        if (request.checkNotModified(dataVersionService.getETag(userId))) {
+            return null;
+        }
+        ExpenseSearchResultDTO results = expenseService.searchExpenses(
+                userId, query, categoryId, startDate, endDate, cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success(results));
+    }
+
     /**
      * Get user's overall expense summary (userOverAllExpense)
      * GET /api/expenses/user/{userId}/summary
      */
     @GetMapping("/user/{userId}/summary")
-    public ResponseEntity<ApiResponse<ExpenseSummaryDTO>> getUserOverallExpense(@PathVariable Long userId) {
+    public ResponseEntity<ApiResponse<ExpenseSummaryDTO>> getUserOverallExpense(
+            @PathVariable Long userId,
+            WebRequest request) {
+        if (request.checkNotModified(dataVersionService.getETag(userId))) {
+            return null;
+        }
         ExpenseSummaryDTO summary = expenseService.getUserOverallExpense(userId);
         return ResponseEntity.ok(ApiResponse.success(summary));
     }
@@ -75,7 +127,11 @@ public class ExpenseController {
     @GetMapping("/user/{userId}/category/{categoryId}")
     public ResponseEntity<ApiResponse<List<ExpenseDTO>>> getExpensesByCategory(
             @PathVariable Long userId,
-            @PathVariable Long categoryId) {
+            @PathVariable Long categoryId,
+            WebRequest request) {
+        if (request.checkNotModified(dataVersionService.getETag(userId))) {
+            return null;
+        }
         List<ExpenseDTO> expenses = expenseService.getExpensesByCategory(userId, categoryId);
         return ResponseEntity.ok(ApiResponse.success(expenses));
     }
@@ -88,7 +144,11 @@ public class ExpenseController {
     public ResponseEntity<ApiResponse<ExpenseSummaryDTO>> getExpenseSummaryByDateRange(
             @PathVariable Long userId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            WebRequest request) {
+        if (request.checkNotModified(dataVersionService.getETag(userId))) {
+            return null;
+        }
         ExpenseSummaryDTO summary = expenseService.getExpenseSummaryByDateRange(userId, startDate, endDate);
         return ResponseEntity.ok(ApiResponse.success(summary));
     }
@@ -2,9 +2,11 @@ package com.cashflow.controller;
 
 import com.cashflow.dto.ApiResponse;
 import com.cashflow.dto.UserDTO;
+import com.cashflow.service.ShardRouter;
 import com.cashflow.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.user.OAuth2User;
@@ -13,13 +15,16 @@ import org.springframework.web.servlet.view.RedirectView;
 
 /**
  * Controller for handling OAuth2 authentication
+ * Lazy: created on the first OAuth2 request rather than at startup
  */
+@Lazy
 @RestController
 @RequiredArgsConstructor
 @CrossOrigin(origins = "*")
 public class OAuth2Controller {
 
     private final UserService userService;
+    private final ShardRouter shardRouter;
 
     @Value("${app.frontend.url:http://localhost:3000}")
     private String frontendUrl;
@@ -38,8 +43,13 @@ public class OAuth2Controller {
         String name = oauth2User.getAttribute("name");
         String googleId = oauth2User.getAttribute("sub");
 
-        // Check if user exists, if not create new user
-        UserDTO user = userService.findOrCreateOAuth2User(email, name, googleId);
+        // Check if user exists (on any shard), if not create new user
+        int shard = shardRouter.findUserShard(users -> users.findByGoogleId(googleId).isPresent());
+        if (shard < 0) {
+            shard = shardRouter.findUserShard(users -> users.existsByEmail(email));
+        }
+        UserDTO user = shardRouter.onShard(shard >= 0 ? shard : shardRouter.shardForNewUser(email),
+                () -> userService.findOrCreateOAuth2User(email, name, googleId));
 
         // Redirect to frontend with user info
         return new RedirectView(frontendUrl + "/oauth2/callback?userId=" + user.getId() +
@@ -57,7 +67,8 @@ public class OAuth2Controller {
         }
 
         String email = oauth2User.getAttribute("email");
-        UserDTO user = userService.getUserByEmail(email);
+        int shard = Math.max(0, shardRouter.findUserShard(users -> users.existsByEmail(email)));
+        UserDTO user = shardRouter.onShard(shard, () -> userService.getUserByEmail(email));
         return ResponseEntity.ok(ApiResponse.success("User retrieved", user));
     }
 
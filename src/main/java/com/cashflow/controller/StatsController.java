@@ -3,11 +3,14 @@ package com.cashflow.controller;
 import com.cashflow.dto.ApiResponse;
 import com.cashflow.dto.MonthlyStatsDTO;
 import com.cashflow.dto.MonthlyTrendDTO;
+import com.cashflow.service.DataVersionService;
 import com.cashflow.service.StatsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.List;
 
@@ -21,6 +24,7 @@ import java.util.List;
 public class StatsController {
 
     private final StatsService statsService;
+    private final DataVersionService dataVersionService;
 
     /**
      * Get monthly statistics for a specific month
@@ -30,7 +34,11 @@ public class StatsController {
     public ResponseEntity<ApiResponse<MonthlyStatsDTO>> getMonthlyStats(
             @PathVariable Long userId,
             @RequestParam(required = false) Integer year,
-            @RequestParam(required = false) Integer month) {
+            @RequestParam(required = false) Integer month,
+            WebRequest request) {
+        if (request.checkNotModified(dataVersionService.getETag(userId, LocalDate.now()))) {
+            return null;
+        }
 
         // Default to current month if not specified
         YearMonth current = YearMonth.now();
@@ -49,7 +57,11 @@ public class StatsController {
     public ResponseEntity<ApiResponse<List<MonthlyTrendDTO>>> getMonthlyTrends(
             @PathVariable Long userId,
             @RequestParam(defaultValue = "6") int months,
-            @RequestParam(required = false) Long categoryId) {
+            @RequestParam(required = false) Long categoryId,
+            WebRequest request) {
+        if (request.checkNotModified(dataVersionService.getETag(userId, LocalDate.now()))) {
+            return null;
+        }
 
         List<MonthlyTrendDTO> trends;
         if (categoryId != null) {
@@ -4,13 +4,19 @@ import com.cashflow.dto.AlertDTO;
 import com.cashflow.dto.ApiResponse;
 import com.cashflow.dto.ThresholdDTO;
 import com.cashflow.service.AlertService;
+import com.cashflow.service.AlertStreamService;
+import com.cashflow.service.DataVersionService;
 import com.cashflow.service.ThresholdService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -26,6 +32,8 @@ public class ThresholdController {
 
     private final ThresholdService thresholdService;
     private final AlertService alertService;
+    private final AlertStreamService alertStreamService;
+    private final DataVersionService dataVersionService;
 
     /**
      * Set a new threshold (setThreshold)
@@ -84,18 +92,57 @@ public class ThresholdController {
      * GET /api/thresholds/alerts/{userId}
      */
     @GetMapping("/alerts/{userId}")
-    public ResponseEntity<ApiResponse<List<AlertDTO>>> getThresholdBreachedAlerts(@PathVariable Long userId) {
+    public ResponseEntity<ApiResponse<List<AlertDTO>>> getThresholdBreachedAlerts(
+            @PathVariable Long userId,
+            WebRequest request) {
+        if (request.checkNotModified(dataVersionService.getETag(userId, LocalDate.now()))) {
+            return null;
+        }
         List<AlertDTO> alerts = alertService.getThresholdBreachedAlerts(userId);
         return ResponseEntity.ok(ApiResponse.success(alerts));
     }
 
+    /**
+     * Get recorded alert events for a user, oldest first
+     * GET /api/thresholds/alerts/{userId}/events?afterId=0
+     */
+    @GetMapping("/alerts/{userId}/events")
+    public ResponseEntity<ApiResponse<List<AlertDTO>>> getAlertEvents(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest request) {
+        if (request.checkNotModified(dataVersionService.getETag(userId, afterId, limit))) {
+            return null;
+        }
+        List<AlertDTO> alerts = alertService.getAlertEvents(userId, afterId, Math.min(Math.max(limit, 1), 500));
+        return ResponseEntity.ok(ApiResponse.success(alerts));
+    }
+
+    /**
+     * Stream new alert events for a user (Server-Sent Events)
+     * GET /api/thresholds/alerts/{userId}/stream
+     */
+    @GetMapping(value = "/alerts/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAlerts(
+            @PathVariable Long userId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return alertStreamService.subscribe(userId, lastEventId);
+    }
+
     /**
      * Check and get current threshold status/alerts for a user
+     * Read-only: breach flags and alert events are updated on expense writes.
      * GET /api/thresholds/check/{userId}
      */
     @GetMapping("/check/{userId}")
-    public ResponseEntity<ApiResponse<List<AlertDTO>>> checkThresholds(@PathVariable Long userId) {
-        List<AlertDTO> alerts = alertService.checkThresholdBreaches(userId);
+    public ResponseEntity<ApiResponse<List<AlertDTO>>> checkThresholds(
+            @PathVariable Long userId,
+            WebRequest request) {
+        if (request.checkNotModified(dataVersionService.getETag(userId, LocalDate.now()))) {
+            return null;
+        }
+        List<AlertDTO> alerts = alertService.evaluateThresholds(userId);
         return ResponseEntity.ok(ApiResponse.success(alerts));
     }
 
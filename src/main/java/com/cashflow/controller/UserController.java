@@ -3,6 +3,7 @@ package com.cashflow.controller;
 import com.cashflow.dto.ApiResponse;
 import com.cashflow.dto.UserDTO;
 import com.cashflow.service.CategoryService;
+import com.cashflow.service.ShardRouter;
 import com.cashflow.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -24,6 +25,7 @@ public class UserController {
 
     private final UserService userService;
     private final CategoryService categoryService;
+    private final ShardRouter shardRouter;
 
     /**
      * Register a new user
@@ -77,12 +79,12 @@ public class UserController {
     }
 
     /**
-     * Get all users
+     * Get all users (of every shard)
      * GET /api/users
      */
     @GetMapping
     public ResponseEntity<ApiResponse<List<UserDTO>>> getAllUsers() {
-        List<UserDTO> users = userService.getAllUsers();
+        List<UserDTO> users = shardRouter.onEachShard(userService::getAllUsers);
         return ResponseEntity.ok(ApiResponse.success(users));
     }
 
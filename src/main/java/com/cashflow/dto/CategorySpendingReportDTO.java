@@ -0,0 +1,41 @@
+package com.cashflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for spending per category name across all users (admin reporting)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorySpendingReportDTO {
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BigDecimal totalAmount;
+    private long expenseCount;
+    private long userCount;
+
+    // Largest total first
+    private List<CategoryTotal> categories;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryTotal {
+        private String categoryName;
+        private BigDecimal totalAmount;
+        private long expenseCount;
+        private long userCount;
+        private Double percentage;
+    }
+}
@@ -0,0 +1,22 @@
+package com.cashflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for income totals grouped by credit type or source
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreditBreakdownDTO {
+    private String name;
+    private BigDecimal totalAmount;
+    private long count;
+    private Double percentage;
+}
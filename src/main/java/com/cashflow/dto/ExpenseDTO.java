@@ -47,6 +47,8 @@ public class ExpenseDTO {
     // Response fields
     private String categoryName;
     private String username;
+    private LocalDate nextOccurrenceDate;
+    private Long recurringSourceId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
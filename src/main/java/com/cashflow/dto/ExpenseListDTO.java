@@ -0,0 +1,46 @@
+package com.cashflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact expense list for large payloads
+ * User and category fields are sent once instead of on every row
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExpenseListDTO {
+
+    private Long userId;
+    private String username;
+
+    // Category id -> name for every category referenced by the rows
+    private Map<Long, String> categories;
+
+    private List<Row> expenses;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Row {
+        private Long id;
+        private BigDecimal amount;
+        private String description;
+        private LocalDate expenseDate;
+        private String paymentMethod;
+        private String merchantName;
+        private Boolean isRecurring;
+        private String recurringFrequency;
+        private Long categoryId;
+    }
+}
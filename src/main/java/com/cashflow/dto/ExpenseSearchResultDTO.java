@@ -0,0 +1,24 @@
+package com.cashflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Expense search results page, best matches first
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExpenseSearchResultDTO {
+
+    private String query;
+    private List<ExpenseDTO> expenses;
+
+    // Pass back as "cursor" to fetch the next page; null on the last page
+    private String nextCursor;
+}
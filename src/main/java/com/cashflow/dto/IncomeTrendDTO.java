@@ -0,0 +1,26 @@
+package com.cashflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for monthly income, spending and savings rate
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncomeTrendDTO {
+    private int year;
+    private int month;
+    private String monthName;
+    private BigDecimal totalIncome;
+    private long creditCount;
+    private BigDecimal totalExpenses;
+    private BigDecimal savings;       // income - expenses
+    private Double savingsRate;       // savings as % of income, null without income
+}
@@ -0,0 +1,83 @@
+package com.cashflow.model;
+
+import com.cashflow.config.ShardAwareSequenceGenerator;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.Parameter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * AlertEvent Entity - Persisted threshold alert, written in the same
+ * transaction as the change that raised it and pushed to clients from there
+ * At most one event per threshold, alert type and threshold period.
+ */
+@Entity
+@Table(name = "alert_events", uniqueConstraints = @UniqueConstraint(
+        name = "uk_alert_events_period",
+        columnNames = { "threshold_id", "alert_type", "period_start" }),
+        indexes = @Index(name = "idx_alert_events_user_id", columnList = "user_id, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlertEvent {
+
+    // One sequence value per event (no pooled block): ids follow insert order, which AlertStreamService relies on
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "alert_events_seq")
+    @GenericGenerator(name = "alert_events_seq", type = ShardAwareSequenceGenerator.class, parameters = {
+            @Parameter(name = "sequence_name", value = "alert_events_seq"),
+            @Parameter(name = "increment_size", value = "1") })
+    private Long id;
+
+    // Plain id so deleting a threshold keeps its alert history
+    @Column(name = "threshold_id", nullable = false)
+    private Long thresholdId;
+
+    @Column(name = "alert_type", nullable = false)
+    private String alertType; // WARNING, BREACH
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(name = "category_name")
+    private String categoryName;
+
+    @Column(nullable = false)
+    private String message;
+
+    @Column(name = "limit_amount", precision = 10, scale = 2)
+    private BigDecimal limitAmount;
+
+    @Column(name = "current_spending", precision = 14, scale = 2)
+    private BigDecimal currentSpending;
+
+    @Column(name = "usage_percentage")
+    private Double usagePercentage;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    // Many-to-One relationship with User
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
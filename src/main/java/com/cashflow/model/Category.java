@@ -1,5 +1,6 @@
 package com.cashflow.model;
 
+import com.cashflow.config.ShardAwareSequenceGenerator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -7,6 +8,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -16,7 +19,7 @@ import java.util.List;
  * Category Entity - Represents expense categories for organizing transactions
  */
 @Entity
-@Table(name = "categories")
+@Table(name = "categories", indexes = @Index(name = "idx_categories_user_id", columnList = "user_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -24,7 +27,10 @@ import java.util.List;
 public class Category {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categories_seq")
+    @GenericGenerator(name = "categories_seq", type = ShardAwareSequenceGenerator.class, parameters = {
+            @Parameter(name = "sequence_name", value = "categories_seq"),
+            @Parameter(name = "increment_size", value = "50") })
     private Long id;
 
     @NotBlank(message = "Category name is required")
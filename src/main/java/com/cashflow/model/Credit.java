@@ -1,5 +1,6 @@
 package com.cashflow.model;
 
+import com.cashflow.config.ShardAwareSequenceGenerator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
@@ -8,6 +9,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -25,7 +28,10 @@ import java.time.LocalDateTime;
 public class Credit {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "credits_seq")
+    @GenericGenerator(name = "credits_seq", type = ShardAwareSequenceGenerator.class, parameters = {
+            @Parameter(name = "sequence_name", value = "credits_seq"),
+            @Parameter(name = "increment_size", value = "50") })
     private Long id;
 
     @NotNull(message = "Amount is required")
@@ -0,0 +1,65 @@
+package com.cashflow.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * CreditMonthlyRollup Entity - Pre-aggregated credit totals per user, month, type and source
+ * Maintained by CreditService on every credit write
+ */
+@Entity
+@Table(name = "credit_monthly_rollups", uniqueConstraints = @UniqueConstraint(
+        name = "uk_credit_rollups_key",
+        columnNames = { "user_id", "period_year", "period_month", "credit_type", "source" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CreditMonthlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "credit_monthly_rollups_seq")
+    @SequenceGenerator(name = "credit_monthly_rollups_seq", sequenceName = "credit_monthly_rollups_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "period_year", nullable = false)
+    private Integer periodYear;
+
+    @Column(name = "period_month", nullable = false)
+    private Integer periodMonth;
+
+    @Column(name = "credit_type", nullable = false)
+    private String creditType; // Credits without a type are rolled up as OTHER
+
+    @Column(nullable = false)
+    private String source;
+
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "credit_count", nullable = false)
+    private Long creditCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Many-to-One relationship with User
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
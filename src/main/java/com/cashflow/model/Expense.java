@@ -1,5 +1,6 @@
 package com.cashflow.model;
 
+import com.cashflow.config.ShardAwareSequenceGenerator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
@@ -8,6 +9,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -17,7 +20,8 @@ import java.time.LocalDateTime;
  * Expense Entity - Represents a user's expense transaction
  */
 @Entity
-@Table(name = "expenses")
+@Table(name = "expenses", uniqueConstraints = @UniqueConstraint(
+        name = "uk_expenses_recurring_occurrence", columnNames = { "recurring_source_id", "expense_date" }))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,7 +29,10 @@ import java.time.LocalDateTime;
 public class Expense {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expenses_seq")
+    @GenericGenerator(name = "expenses_seq", type = ShardAwareSequenceGenerator.class, parameters = {
+            @Parameter(name = "sequence_name", value = "expenses_seq"),
+            @Parameter(name = "increment_size", value = "50") })
     private Long id;
 
     @NotNull(message = "Amount is required")
@@ -53,7 +60,15 @@ public class Expense {
     private Boolean isRecurring = false;
 
     @Column(name = "recurring_frequency")
-    private String recurringFrequency;
+    private String recurringFrequency; // DAILY, WEEKLY, MONTHLY, YEARLY
+
+    // Next occurrence still to be materialized (recurring sources only)
+    @Column(name = "next_occurrence_date")
+    private LocalDate nextOccurrenceDate;
+
+    // Recurring expense this row was materialized from
+    @Column(name = "recurring_source_id")
+    private Long recurringSourceId;
 
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -61,6 +76,11 @@ public class Expense {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Optimistic lock; bulk updates of this entity must increment it as well
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Many-to-One relationship with User
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -84,5 +104,30 @@ public class Expense {
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
     }
+
+    /**
+     * Check if the recurring frequency is one the scheduler can materialize
+     */
+    public boolean hasSupportedRecurrence() {
+        return recurringFrequency != null && switch (recurringFrequency.toUpperCase()) {
+            case "DAILY", "WEEKLY", "MONTHLY", "YEARLY" -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Get the n-th occurrence of this recurring expense (n = 0 is the expense date)
+     * Always computed from the original date so monthly occurrences on the
+     * 31st do not drift after a short month.
+     */
+    public LocalDate nthOccurrence(long n) {
+        return switch (recurringFrequency.toUpperCase()) {
+            case "DAILY" -> expenseDate.plusDays(n);
+            case "WEEKLY" -> expenseDate.plusWeeks(n);
+            case "MONTHLY" -> expenseDate.plusMonths(n);
+            case "YEARLY" -> expenseDate.plusYears(n);
+            default -> throw new IllegalStateException("Unsupported recurring frequency: " + recurringFrequency);
+        };
+    }
 }
 // Expense date validation
@@ -1,5 +1,6 @@
 package com.cashflow.model;
 
+import com.cashflow.config.ShardAwareSequenceGenerator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
@@ -7,9 +8,14 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
 
 /**
  * Threshold Entity - Represents expense limits set by users for alerts
@@ -23,7 +29,10 @@ import java.time.LocalDateTime;
 public class Threshold {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "thresholds_seq")
+    @GenericGenerator(name = "thresholds_seq", type = ShardAwareSequenceGenerator.class, parameters = {
+            @Parameter(name = "sequence_name", value = "thresholds_seq"),
+            @Parameter(name = "increment_size", value = "50") })
     private Long id;
 
     @NotNull(message = "Limit amount is required")
@@ -56,6 +65,11 @@ public class Threshold {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Optimistic lock; bulk updates of this entity must increment it as well
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Many-to-One relationship with User
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -83,5 +97,22 @@ public class Threshold {
     public boolean isOverallThreshold() {
         return category == null;
     }
+
+    /**
+     * First day of the current threshold period (weeks start on Monday)
+     */
+    public LocalDate periodStart(LocalDate today) {
+        return periodStart(thresholdType, today);
+    }
+
+    public static LocalDate periodStart(String thresholdType, LocalDate today) {
+        String type = thresholdType != null ? thresholdType.toUpperCase() : "MONTHLY";
+        return switch (type) {
+            case "DAILY" -> today;
+            case "WEEKLY" -> today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case "YEARLY" -> today.withDayOfYear(1);
+            default -> today.withDayOfMonth(1);
+        };
+    }
 }
 // Threshold percentage calc
@@ -1,5 +1,6 @@
 package com.cashflow.model;
 
+import com.cashflow.config.ShardAwareSequenceGenerator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -8,6 +9,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -25,7 +28,10 @@ import java.util.List;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @GenericGenerator(name = "users_seq", type = ShardAwareSequenceGenerator.class, parameters = {
+            @Parameter(name = "sequence_name", value = "users_seq"),
+            @Parameter(name = "increment_size", value = "50") })
     private Long id;
 
     @NotBlank(message = "Username is required")
@@ -67,6 +73,12 @@ public class User {
     @Builder.Default
     private Boolean isActive = true;
 
+    // Bumped on every write to the user's ledger data; backs HTTP ETags.
+    // Only ever changed through UserRepository.incrementDataVersion.
+    @Column(name = "data_version", insertable = false, updatable = false,
+            columnDefinition = "bigint default 0 not null")
+    private Long dataVersion;
+
     // One-to-Many relationships
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
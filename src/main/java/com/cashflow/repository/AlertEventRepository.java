@@ -0,0 +1,44 @@
+package com.cashflow.repository;
+
+import com.cashflow.model.AlertEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository for AlertEvent entity database operations
+ */
+@Repository
+public interface AlertEventRepository extends JpaRepository<AlertEvent, Long> {
+
+    /**
+     * Check if an alert was already recorded for a threshold period
+     */
+    boolean existsByThresholdIdAndAlertTypeAndPeriodStart(Long thresholdId, String alertType, LocalDate periodStart);
+
+    /**
+     * Find alert events for user after a given event id, oldest first
+     */
+    @Query("SELECT a FROM AlertEvent a JOIN FETCH a.user WHERE a.user.id = :userId AND a.id > :afterId ORDER BY a.id")
+    List<AlertEvent> findByUserIdAfter(
+            @Param("userId") Long userId,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    /**
+     * Find alert events of all users after a given event id, oldest first
+     */
+    @Query("SELECT a FROM AlertEvent a JOIN FETCH a.user WHERE a.id > :afterId ORDER BY a.id")
+    List<AlertEvent> findAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Highest alert event id, 0 without events
+     */
+    @Query("SELECT COALESCE(MAX(a.id), 0) FROM AlertEvent a")
+    long findMaxId();
+}
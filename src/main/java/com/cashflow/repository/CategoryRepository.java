@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,6 +31,18 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
      */
     boolean existsByNameAndUserId(String name, Long userId);
 
+    /**
+     * Names from the given list that the user already has a category for
+     */
+    @Query("SELECT c.name FROM Category c WHERE c.user.id = :userId AND c.name IN :names")
+    List<String> findNamesByUserIdAndNameIn(@Param("userId") Long userId, @Param("names") Collection<String> names);
+
+    /**
+     * Get [id, name] of every category of a user
+     */
+    @Query("SELECT c.id, c.name FROM Category c WHERE c.user.id = :userId ORDER BY c.id")
+    List<Object[]> getIdsAndNamesByUserId(@Param("userId") Long userId);
+
     /**
      * Find default categories for user
      */
@@ -48,8 +61,11 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     /**
      * Search categories by name
+     * Expects a lower-cased, LIKE-escaped term so the predicate stays a plain
+     * LOWER(name) LIKE pattern that the trigram index on LOWER(name) serves
      */
-    @Query("SELECT c FROM Category c WHERE c.user.id = :userId AND LOWER(c.name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
+    @Query("SELECT c FROM Category c WHERE c.user.id = :userId AND LOWER(c.name) LIKE CONCAT('%', :searchTerm, '%') " +
+            "ORDER BY c.name")
     List<Category> searchCategories(@Param("userId") Long userId, @Param("searchTerm") String searchTerm);
 }
 // Category search
@@ -0,0 +1,80 @@
+package com.cashflow.repository;
+
+import com.cashflow.model.CreditMonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Repository for CreditMonthlyRollup entity database operations
+ */
+@Repository
+public interface CreditMonthlyRollupRepository extends JpaRepository<CreditMonthlyRollup, Long> {
+
+    /**
+     * Add an amount/count delta to an existing rollup row
+     * Returns 0 if the row does not exist yet
+     */
+    @Modifying
+    @Query("UPDATE CreditMonthlyRollup r SET r.totalAmount = r.totalAmount + :amount, " +
+            "r.creditCount = r.creditCount + :count, r.updatedAt = LOCAL_DATETIME " +
+            "WHERE r.user.id = :userId AND r.periodYear = :year AND r.periodMonth = :month " +
+            "AND r.creditType = :creditType AND r.source = :source")
+    int applyDelta(
+            @Param("userId") Long userId,
+            @Param("year") int year,
+            @Param("month") int month,
+            @Param("creditType") String creditType,
+            @Param("source") String source,
+            @Param("amount") BigDecimal amount,
+            @Param("count") long count);
+
+    /**
+     * Remove rollup rows whose last credit was removed
+     */
+    @Modifying
+    @Query("DELETE FROM CreditMonthlyRollup r WHERE r.user.id = :userId AND r.creditCount <= 0")
+    int deleteEmptyByUserId(@Param("userId") Long userId);
+
+    /**
+     * Rebuild all rollup rows from the credits table
+     */
+    @Modifying
+    @Query("INSERT INTO CreditMonthlyRollup (user, periodYear, periodMonth, creditType, source, " +
+            "totalAmount, creditCount, updatedAt) " +
+            "SELECT c.user, EXTRACT(YEAR FROM c.creditDate), EXTRACT(MONTH FROM c.creditDate), " +
+            "COALESCE(c.creditType, 'OTHER'), c.source, SUM(c.amount), COUNT(c), LOCAL_DATETIME " +
+            "FROM Credit c GROUP BY c.user, EXTRACT(YEAR FROM c.creditDate), EXTRACT(MONTH FROM c.creditDate), " +
+            "COALESCE(c.creditType, 'OTHER'), c.source")
+    int rebuildAll();
+
+    /**
+     * Get credit totals by type for user
+     */
+    @Query("SELECT r.creditType, SUM(r.totalAmount), SUM(r.creditCount) FROM CreditMonthlyRollup r " +
+            "WHERE r.user.id = :userId GROUP BY r.creditType")
+    List<Object[]> getSummaryByType(@Param("userId") Long userId);
+
+    /**
+     * Get credit totals by source for user
+     */
+    @Query("SELECT r.source, SUM(r.totalAmount), SUM(r.creditCount) FROM CreditMonthlyRollup r " +
+            "WHERE r.user.id = :userId GROUP BY r.source")
+    List<Object[]> getSummaryBySource(@Param("userId") Long userId);
+
+    /**
+     * Get monthly credit totals for user between two months (yyyyMM, inclusive)
+     */
+    @Query("SELECT r.periodYear, r.periodMonth, SUM(r.totalAmount), SUM(r.creditCount) FROM CreditMonthlyRollup r " +
+            "WHERE r.user.id = :userId AND r.periodYear * 100 + r.periodMonth BETWEEN :fromPeriod AND :toPeriod " +
+            "GROUP BY r.periodYear, r.periodMonth")
+    List<Object[]> getMonthlyTotals(
+            @Param("userId") Long userId,
+            @Param("fromPeriod") int fromPeriod,
+            @Param("toPeriod") int toPeriod);
+}
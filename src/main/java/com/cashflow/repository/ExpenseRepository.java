@@ -1,20 +1,24 @@
 package com.cashflow.repository;
 
 import com.cashflow.model.Expense;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Repository for Expense entity database operations
  */
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, ExpenseSearchRepository {
 
     /**
      * Find all expenses for a specific user
@@ -26,6 +30,12 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
      */
     List<Expense> findByUserIdOrderByExpenseDateDesc(Long userId);
 
+    /**
+     * Find expenses by ids with user and category loaded
+     */
+    @Query("SELECT e FROM Expense e JOIN FETCH e.user JOIN FETCH e.category WHERE e.id IN :ids")
+    List<Expense> findWithDetailsByIdIn(@Param("ids") List<Long> ids);
+
     /**
      * Find expenses by category
      */
@@ -108,5 +118,154 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
             @Param("userId") Long userId,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
+
+    /**
+     * Get monthly expense totals for user within date range
+     */
+    @Query("SELECT EXTRACT(YEAR FROM e.expenseDate), EXTRACT(MONTH FROM e.expenseDate), SUM(e.amount), COUNT(e) " +
+            "FROM Expense e WHERE e.user.id = :userId AND e.expenseDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY EXTRACT(YEAR FROM e.expenseDate), EXTRACT(MONTH FROM e.expenseDate)")
+    List<Object[]> getMonthlyTotalsByDateRange(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Get ledger columns of a user's expenses from a date on
+     * Returns [expense date, category id, amount] ordered by date
+     */
+    @Query("SELECT e.expenseDate, e.category.id, e.amount FROM Expense e " +
+            "WHERE e.user.id = :userId AND e.expenseDate >= :fromDate ORDER BY e.expenseDate")
+    List<Object[]> getLedgerColumns(@Param("userId") Long userId, @Param("fromDate") LocalDate fromDate);
+
+    /**
+     * Find the latest expenses of a user within date range, with their category
+     */
+    @EntityGraph(attributePaths = "category")
+    List<Expense> findTop5ByUserIdAndExpenseDateBetweenOrderByExpenseDateDesc(
+            Long userId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Get period spending per user and category for several users
+     * Returns [user id, category id, day total, week total, month total,
+     * year total] for the periods starting at the given dates and ending today
+     */
+    @Query("SELECT e.user.id, e.category.id, " +
+            "SUM(CASE WHEN e.expenseDate >= :dayStart THEN e.amount ELSE 0 END), " +
+            "SUM(CASE WHEN e.expenseDate >= :weekStart THEN e.amount ELSE 0 END), " +
+            "SUM(CASE WHEN e.expenseDate >= :monthStart THEN e.amount ELSE 0 END), " +
+            "SUM(CASE WHEN e.expenseDate >= :yearStart THEN e.amount ELSE 0 END) " +
+            "FROM Expense e WHERE e.user.id IN :userIds " +
+            "AND e.expenseDate >= :fromDate AND e.expenseDate <= :dayStart " +
+            "GROUP BY e.user.id, e.category.id")
+    List<Object[]> getPeriodSpendingByUserIdsAndCategory(
+            @Param("userIds") Collection<Long> userIds,
+            @Param("dayStart") LocalDate dayStart,
+            @Param("weekStart") LocalDate weekStart,
+            @Param("monthStart") LocalDate monthStart,
+            @Param("yearStart") LocalDate yearStart,
+            @Param("fromDate") LocalDate fromDate);
+
+    /**
+     * Get spending per category name for a user id range (admin reporting)
+     * Returns [category name, total, expense count, user count]
+     */
+    @Query("SELECT e.category.name, SUM(e.amount), COUNT(e), COUNT(DISTINCT e.user.id) FROM Expense e " +
+            "WHERE e.user.id BETWEEN :fromUserId AND :toUserId " +
+            "AND e.expenseDate BETWEEN :startDate AND :endDate GROUP BY e.category.name")
+    List<Object[]> getCategorySpendingByUserIdRange(
+            @Param("fromUserId") Long fromUserId,
+            @Param("toUserId") Long toUserId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Count the users of an id range with expenses in the date range
+     */
+    @Query("SELECT COUNT(DISTINCT e.user.id) FROM Expense e WHERE e.user.id BETWEEN :fromUserId AND :toUserId " +
+            "AND e.expenseDate BETWEEN :startDate AND :endDate")
+    long countSpendingUsersByUserIdRange(
+            @Param("fromUserId") Long fromUserId,
+            @Param("toUserId") Long toUserId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Get the whole ledger summary for user in one statement
+     * One CREDIT row (username, credit total, credit count) followed by one
+     * EXPENSE row per category (category id, name, total, count); no rows if
+     * the user does not exist
+     */
+    @Query("SELECT 'CREDIT', CAST(NULL AS Long), u.username, " +
+            "(SELECT COALESCE(SUM(c.amount), 0) FROM Credit c WHERE c.user.id = u.id), " +
+            "(SELECT COUNT(c) FROM Credit c WHERE c.user.id = u.id) " +
+            "FROM User u WHERE u.id = :userId " +
+            "UNION ALL " +
+            "SELECT 'EXPENSE', e.category.id, e.category.name, SUM(e.amount), COUNT(e) " +
+            "FROM Expense e WHERE e.user.id = :userId GROUP BY e.category.id, e.category.name")
+    List<Object[]> getLedgerSummary(@Param("userId") Long userId);
+
+    /**
+     * Get the ledger summary for user within date range in one statement
+     * Same row layout as getLedgerSummary
+     */
+    @Query("SELECT 'CREDIT', CAST(NULL AS Long), u.username, " +
+            "(SELECT COALESCE(SUM(c.amount), 0) FROM Credit c WHERE c.user.id = u.id " +
+            "AND c.creditDate BETWEEN :startDate AND :endDate), " +
+            "(SELECT COUNT(c) FROM Credit c WHERE c.user.id = u.id " +
+            "AND c.creditDate BETWEEN :startDate AND :endDate) " +
+            "FROM User u WHERE u.id = :userId " +
+            "UNION ALL " +
+            "SELECT 'EXPENSE', e.category.id, e.category.name, SUM(e.amount), COUNT(e) " +
+            "FROM Expense e WHERE e.user.id = :userId AND e.expenseDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY e.category.id, e.category.name")
+    List<Object[]> getLedgerSummaryByDateRange(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Find recurring expenses with occurrences due up to the horizon, for a user id range
+     * Keyset-paged on id; user and category are fetched for materialization
+     */
+    @Query("SELECT e FROM Expense e JOIN FETCH e.user JOIN FETCH e.category " +
+            "WHERE e.isRecurring = true AND UPPER(e.recurringFrequency) IN :frequencies " +
+            "AND (e.nextOccurrenceDate IS NULL OR e.nextOccurrenceDate <= :horizon) " +
+            "AND e.user.id BETWEEN :fromUserId AND :toUserId AND e.id > :afterId ORDER BY e.id")
+    List<Expense> findDueRecurringExpenses(
+            @Param("frequencies") List<String> frequencies,
+            @Param("horizon") LocalDate horizon,
+            @Param("fromUserId") Long fromUserId,
+            @Param("toUserId") Long toUserId,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    /**
+     * Count recurring expenses with occurrences due up to the horizon
+     */
+    @Query("SELECT COUNT(e) FROM Expense e WHERE e.isRecurring = true " +
+            "AND UPPER(e.recurringFrequency) IN :frequencies " +
+            "AND (e.nextOccurrenceDate IS NULL OR e.nextOccurrenceDate <= :horizon)")
+    long countDueRecurringExpenses(
+            @Param("frequencies") List<String> frequencies,
+            @Param("horizon") LocalDate horizon);
+
+    /**
+     * Get the lowest and highest user id owning a due recurring expense
+     */
+    @Query("SELECT MIN(e.user.id), MAX(e.user.id) FROM Expense e WHERE e.isRecurring = true " +
+            "AND UPPER(e.recurringFrequency) IN :frequencies " +
+            "AND (e.nextOccurrenceDate IS NULL OR e.nextOccurrenceDate <= :horizon)")
+    List<Object[]> getDueRecurringUserIdRange(
+            @Param("frequencies") List<String> frequencies,
+            @Param("horizon") LocalDate horizon);
+
+    /**
+     * Move the next occurrence cursor of a recurring expense
+     */
+    @Modifying
+    @Query("UPDATE Expense e SET e.nextOccurrenceDate = :nextOccurrenceDate, e.version = e.version + 1 " +
+            "WHERE e.id = :id")
+    int updateNextOccurrenceDate(@Param("id") Long id, @Param("nextOccurrenceDate") LocalDate nextOccurrenceDate);
 }
 // Expense aggregation
@@ -0,0 +1,19 @@
+package com.cashflow.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Custom repository fragment for ranked expense search
+ */
+public interface ExpenseSearchRepository {
+
+    /**
+     * Search a user's expenses by description and merchant name
+     * Returns [expenseId, rank] rows ordered by rank then id, both descending.
+     * Optional filters may be null; the keyset cursor (afterRank, afterId)
+     * continues a previous page.
+     */
+    List<Object[]> searchExpenseIds(Long userId, String query, Long categoryId,
+            LocalDate startDate, LocalDate endDate, Double afterRank, Long afterId, int limit);
+}
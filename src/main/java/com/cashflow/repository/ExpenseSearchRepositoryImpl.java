@@ -0,0 +1,99 @@
+package com.cashflow.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Native SQL implementation of expense search
+ * On PostgreSQL with pg_trgm the query matches the full-text and trigram
+ * indexes created by the PostgreSQL V3 migration; elsewhere (H2) it falls back to
+ * case-insensitive LIKE with a simple prefix-first ranking.
+ */
+public class ExpenseSearchRepositoryImpl implements ExpenseSearchRepository {
+
+    // Must stay identical to the indexed expression in the V3 migration
+    private static final String DOCUMENT = "(COALESCE(e.description, '') || ' ' || COALESCE(e.merchant_name, ''))";
+
+    private static final String POSTGRES_MATCH =
+            "SELECT e.id AS id, CAST(ts_rank(to_tsvector('simple', " + DOCUMENT + "), " +
+            "plainto_tsquery('simple', :query)) + word_similarity(:query, " + DOCUMENT + ") " +
+            "AS double precision) AS rank FROM expenses e WHERE e.user_id = :userId " +
+            "AND (to_tsvector('simple', " + DOCUMENT + ") @@ plainto_tsquery('simple', :query) " +
+            "OR :query <% " + DOCUMENT + ")";
+
+    private static final String FALLBACK_MATCH =
+            "SELECT e.id AS id, CAST(CASE WHEN LOWER(e.description) LIKE :prefix " +
+            "OR LOWER(e.merchant_name) LIKE :prefix THEN 2 ELSE 1 END AS double precision) AS rank " +
+            "FROM expenses e WHERE e.user_id = :userId " +
+            "AND (LOWER(e.description) LIKE :contains OR LOWER(e.merchant_name) LIKE :contains)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean fullTextAvailable;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Object[]> searchExpenseIds(Long userId, String query, Long categoryId,
+            LocalDate startDate, LocalDate endDate, Double afterRank, Long afterId, int limit) {
+        boolean fullText = isFullTextAvailable();
+
+        StringBuilder sql = new StringBuilder(fullText ? POSTGRES_MATCH : FALLBACK_MATCH);
+        if (categoryId != null) {
+            sql.append(" AND e.category_id = :categoryId");
+        }
+        if (startDate != null) {
+            sql.append(" AND e.expense_date >= :startDate");
+        }
+        if (endDate != null) {
+            sql.append(" AND e.expense_date <= :endDate");
+        }
+        sql.insert(0, "SELECT r.id, r.rank FROM (").append(") r");
+        if (afterId != null) {
+            sql.append(" WHERE r.rank < :afterRank OR (r.rank = :afterRank AND r.id < :afterId)");
+        }
+        sql.append(" ORDER BY r.rank DESC, r.id DESC LIMIT :limit");
+
+        Query nativeQuery = entityManager.createNativeQuery(sql.toString())
+                .setParameter("userId", userId)
+                .setParameter("limit", limit);
+        if (fullText) {
+            nativeQuery.setParameter("query", query);
+        } else {
+            String term = query.toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            nativeQuery.setParameter("prefix", term + "%").setParameter("contains", "%" + term + "%");
+        }
+        if (categoryId != null) {
+            nativeQuery.setParameter("categoryId", categoryId);
+        }
+        if (startDate != null) {
+            nativeQuery.setParameter("startDate", startDate);
+        }
+        if (endDate != null) {
+            nativeQuery.setParameter("endDate", endDate);
+        }
+        if (afterId != null) {
+            nativeQuery.setParameter("afterRank", afterRank).setParameter("afterId", afterId);
+        }
+        return nativeQuery.getResultList();
+    }
+
+    /**
+     * PostgreSQL with the pg_trgm extension installed (checked once)
+     */
+    private boolean isFullTextAvailable() {
+        if (fullTextAvailable == null) {
+            boolean postgres = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+            fullTextAvailable = postgres && ((Number) entityManager.createNativeQuery(
+                    "SELECT COUNT(*) FROM pg_extension WHERE extname = 'pg_trgm'").getSingleResult()).longValue() > 0;
+        }
+        return fullTextAvailable;
+    }
+}
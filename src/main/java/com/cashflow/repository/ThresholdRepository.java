@@ -1,11 +1,15 @@
 package com.cashflow.repository;
 
 import com.cashflow.model.Threshold;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,11 +24,30 @@ public interface ThresholdRepository extends JpaRepository<Threshold, Long> {
      */
     List<Threshold> findByUserId(Long userId);
 
+    /**
+     * Find all thresholds for a user with user and category loaded
+     */
+    @Query("SELECT t FROM Threshold t JOIN FETCH t.user LEFT JOIN FETCH t.category WHERE t.user.id = :userId")
+    List<Threshold> findWithDetailsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Find thresholds by ids with user and category loaded
+     */
+    @Query("SELECT t FROM Threshold t JOIN FETCH t.user LEFT JOIN FETCH t.category WHERE t.id IN :ids")
+    List<Threshold> findWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
     /**
      * Find active thresholds for user
      */
     List<Threshold> findByUserIdAndIsActiveTrue(Long userId);
 
+    /**
+     * Find active thresholds for user with user and category loaded
+     */
+    @Query("SELECT t FROM Threshold t JOIN FETCH t.user LEFT JOIN FETCH t.category " +
+            "WHERE t.user.id = :userId AND t.isActive = true")
+    List<Threshold> findActiveWithDetailsByUserId(@Param("userId") Long userId);
+
     /**
      * Find threshold by user and category
      */
@@ -72,5 +95,45 @@ public interface ThresholdRepository extends JpaRepository<Threshold, Long> {
      * Count breached thresholds for user
      */
     long countByUserIdAndIsBreachedTrue(Long userId);
+
+    /**
+     * Get the lowest and highest user id with active thresholds
+     */
+    @Query("SELECT MIN(t.user.id), MAX(t.user.id) FROM Threshold t WHERE t.isActive = true")
+    List<Object[]> getActiveThresholdUserIdRange();
+
+    /**
+     * Next chunk of user ids with active thresholds in a range (keyset paging)
+     */
+    @Query("SELECT DISTINCT t.user.id FROM Threshold t WHERE t.isActive = true " +
+            "AND t.user.id > :afterUserId AND t.user.id <= :toUserId ORDER BY t.user.id")
+    List<Long> findActiveThresholdUserIds(
+            @Param("afterUserId") Long afterUserId,
+            @Param("toUserId") Long toUserId,
+            Pageable pageable);
+
+    /**
+     * Active thresholds of several users as
+     * [id, user id, category id, limit amount, threshold type, is breached]
+     */
+    @Query("SELECT t.id, t.user.id, t.category.id, t.limitAmount, t.thresholdType, t.isBreached " +
+            "FROM Threshold t WHERE t.isActive = true AND t.user.id IN :userIds")
+    List<Object[]> getActiveThresholdStates(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Set or clear the breach flag of several thresholds
+     * Only rows whose flag actually changes are touched (a NULL flag counts as
+     * unset), so the returned count says which caller won a concurrent flip;
+     * lastAlertSent is stamped when a breach is raised. The version increment
+     * makes a concurrent read-modify-write of the same threshold fail and retry.
+     */
+    @Modifying
+    @Query("UPDATE Threshold t SET t.isBreached = :breached, t.updatedAt = :now, t.version = t.version + 1, " +
+            "t.lastAlertSent = CASE WHEN :breached = true THEN :now ELSE t.lastAlertSent END " +
+            "WHERE t.id IN :ids AND (t.isBreached IS NULL OR t.isBreached <> :breached)")
+    int updateBreachedFlags(
+            @Param("ids") Collection<Long> ids,
+            @Param("breached") boolean breached,
+            @Param("now") LocalDateTime now);
 }
 // Threshold breach detection
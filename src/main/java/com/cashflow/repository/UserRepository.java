@@ -2,10 +2,12 @@ package com.cashflow.repository;
 
 import com.cashflow.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -57,4 +59,30 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * Find user by Google ID (for OAuth2 login)
      */
     Optional<User> findByGoogleId(String googleId);
+
+    /**
+     * Get [min id, max id] of all users; nulls if there are none
+     */
+    @Query("SELECT MIN(u.id), MAX(u.id) FROM User u")
+    List<Object[]> getUserIdRange();
+
+    /**
+     * Get the data version for user (cheap lookup for conditional GETs)
+     */
+    @Query("SELECT u.dataVersion FROM User u WHERE u.id = :userId")
+    Optional<Long> findDataVersionById(@Param("userId") Long userId);
+
+    /**
+     * Increment the data version for user
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.dataVersion = u.dataVersion + 1 WHERE u.id = :userId")
+    int incrementDataVersion(@Param("userId") Long userId);
+
+    /**
+     * Increment the data version for several users in one statement
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.dataVersion = u.dataVersion + 1 WHERE u.id IN :userIds")
+    int incrementDataVersions(@Param("userIds") Collection<Long> userIds);
 }
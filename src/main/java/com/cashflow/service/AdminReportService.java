@@ -0,0 +1,181 @@
+package com.cashflow.service;
+
+import com.cashflow.dto.CategorySpendingReportDTO;
+import com.cashflow.repository.ExpenseRepository;
+import com.cashflow.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Service for reports that aggregate over all users
+ * The user id space is split in halves on a dedicated fork-join pool until
+ * a range holds at most usersPerTask ids; each range is one grouped range
+ * scan on the (user_id, expense_date) index and partial totals are merged in
+ * long cents on the way back up. The pool never runs more than
+ * min(parallelism, available cores) scans at once, so reports use at most
+ * that many connections and leave the rest of the pool to online traffic.
+ * With sharding each shard's id range is scanned in turn on its own pool.
+ */
+@Service
+@ConditionalOnProperty(name = "app.admin-reports.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminReportService {
+
+    private final ExpenseRepository expenseRepository;
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ShardRouter shardRouter;
+
+    private TransactionTemplate readOnlyTransaction;
+    private ForkJoinPool pool;
+
+    @Value("${app.admin-reports.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.admin-reports.users-per-task:2000}")
+    private long usersPerTask;
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        int threads = Math.max(1, Math.min(parallelism, Runtime.getRuntime().availableProcessors()));
+        // No compensation threads: a blocked join waits instead of growing the pool past the cap
+        pool = new ForkJoinPool(threads, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, false,
+                threads, threads, 1, p -> true, 60, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Get spending per category name across all users within date range
+     */
+    public CategorySpendingReportDTO getCategorySpending(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("startDate must not be after endDate");
+        }
+        long started = System.currentTimeMillis();
+        Partial total = new Partial();
+        shardRouter.forEachShard(shard -> {
+            Object[] userIdRange = userRepository.getUserIdRange().get(0);
+            if (userIdRange[0] != null) {
+                total.merge(pool.invoke(new CategorySpendingTask(
+                        (Long) userIdRange[0], (Long) userIdRange[1], startDate, endDate)));
+            }
+        });
+        log.info("Category spending report {} to {} over {} users took {} ms", startDate, endDate, total.users,
+                System.currentTimeMillis() - started);
+
+        List<CategorySpendingReportDTO.CategoryTotal> categories = total.categories.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> e) -> e.getValue()[0]).reversed())
+                .map(e -> CategorySpendingReportDTO.CategoryTotal.builder()
+                        .categoryName(e.getKey())
+                        .totalAmount(Cents.toAmount(e.getValue()[0]))
+                        .expenseCount(e.getValue()[1])
+                        .userCount(e.getValue()[2])
+                        .percentage(Cents.percentage(e.getValue()[0], total.cents))
+                        .build())
+                .collect(Collectors.toList());
+
+        return CategorySpendingReportDTO.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .totalAmount(Cents.toAmount(total.cents))
+                .expenseCount(total.expenses)
+                .userCount(total.users)
+                .categories(categories)
+                .build();
+    }
+
+    /**
+     * Totals of a user id range: [cents, expenses, users] per category name
+     * User counts add up because ranges never share a user.
+     */
+    private static class Partial {
+        final Map<String, long[]> categories = new HashMap<>();
+        long cents;
+        long expenses;
+        long users;
+
+        Partial merge(Partial other) {
+            other.categories.forEach((name, totals) -> categories.merge(name, totals, (a, b) -> {
+                a[0] = Cents.add(a[0], b[0]);
+                a[1] += b[1];
+                a[2] += b[2];
+                return a;
+            }));
+            cents = Cents.add(cents, other.cents);
+            expenses += other.expenses;
+            users += other.users;
+            return this;
+        }
+    }
+
+    private class CategorySpendingTask extends RecursiveTask<Partial> {
+
+        private final long fromUserId;
+        private final long toUserId;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+
+        CategorySpendingTask(long fromUserId, long toUserId, LocalDate startDate, LocalDate endDate) {
+            this.fromUserId = fromUserId;
+            this.toUserId = toUserId;
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (toUserId - fromUserId < Math.max(1, usersPerTask)) {
+                // Ranges never span shards; workers read the shard from the ids
+                return ShardContext.call(ShardIds.shardOf(fromUserId),
+                        () -> readOnlyTransaction.execute(status -> scan()));
+            }
+            long middle = fromUserId + (toUserId - fromUserId) / 2;
+            CategorySpendingTask lower = new CategorySpendingTask(fromUserId, middle, startDate, endDate);
+            CategorySpendingTask upper = new CategorySpendingTask(middle + 1, toUserId, startDate, endDate);
+            upper.fork();
+            return lower.compute().merge(upper.join());
+        }
+
+        private Partial scan() {
+            Partial partial = new Partial();
+            for (Object[] row : expenseRepository.getCategorySpendingByUserIdRange(
+                    fromUserId, toUserId, startDate, endDate)) {
+                long cents = Cents.of((BigDecimal) row[1]);
+                long expenses = ((Number) row[2]).longValue();
+                partial.categories.put((String) row[0], new long[] { cents, expenses, ((Number) row[3]).longValue() });
+                partial.cents = Cents.add(partial.cents, cents);
+                partial.expenses += expenses;
+            }
+            if (!partial.categories.isEmpty()) {
+                partial.users = expenseRepository.countSpendingUsersByUserIdRange(
+                        fromUserId, toUserId, startDate, endDate);
+            }
+            return partial;
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package com.cashflow.service;
 
-import com.cashflow.model.Expense;
 import com.cashflow.repository.ExpenseRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.net.URI;
@@ -18,33 +21,46 @@ import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Service for AI-powered expense analysis using Google Gemini
+ * Lazy: the HTTP client and templates are only built on the first chat request
  */
+@Lazy
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AiService {
 
     private final ExpenseRepository expenseRepository;
+    private final LedgerCacheService ledgerCacheService;
+    private final PlatformTransactionManager transactionManager;
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final HttpClient httpClient = HttpClient.newHttpClient();
 
+    // Only the expense reads run in a transaction; no connection is held during the Gemini call
+    private TransactionTemplate readOnlyTransaction;
+
     @Value("${gemini.api.key}")
     private String geminiApiKey;
 
     @Value("${gemini.api.url}")
     private String geminiApiUrl;
 
+    @PostConstruct
+    void initTransactionTemplate() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
     /**
      * Chat with AI about expenses
      */
     public String chat(Long userId, String userMessage) {
         try {
             // Build context from user's expense data
-            String expenseContext = buildExpenseContext(userId);
+            String expenseContext = readOnlyTransaction.execute(status -> buildExpenseContext(userId));
 
             // Create the prompt
             String prompt = buildPrompt(expenseContext, userMessage);
@@ -63,29 +79,20 @@ public class AiService {
     private String buildExpenseContext(Long userId) {
         YearMonth currentMonth = YearMonth.now();
         YearMonth lastMonth = currentMonth.minusMonths(1);
+        LocalDate currentStart = currentMonth.atDay(1);
+        LocalDate currentEnd = currentMonth.atEndOfMonth();
+        LocalDate lastStart = lastMonth.atDay(1);
+        LocalDate lastEnd = lastMonth.atEndOfMonth();
 
-        // Get current month expenses
-        List<Expense> currentMonthExpenses = expenseRepository.findByUserIdAndExpenseDateBetween(
-                userId, currentMonth.atDay(1), currentMonth.atEndOfMonth());
-
-        // Get last month expenses
-        List<Expense> lastMonthExpenses = expenseRepository.findByUserIdAndExpenseDateBetween(
-                userId, lastMonth.atDay(1), lastMonth.atEndOfMonth());
+        // Totals come from the cached ledger; only the recent transactions are loaded as entities
+        UserLedger ledger = ledgerCacheService.getLedger(userId, lastStart);
 
         // Calculate totals
-        BigDecimal currentTotal = currentMonthExpenses.stream()
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal lastMonthTotal = lastMonthExpenses.stream()
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal currentTotal = Cents.toAmount(ledger.sumCents(currentStart, currentEnd));
+        BigDecimal lastMonthTotal = Cents.toAmount(ledger.sumCents(lastStart, lastEnd));
 
         // Category breakdown for current month
-        Map<String, BigDecimal> categoryTotals = currentMonthExpenses.stream()
-                .collect(Collectors.groupingBy(
-                        e -> e.getCategory() != null ? e.getCategory().getName() : "Uncategorized",
-                        Collectors.reducing(BigDecimal.ZERO, Expense::getAmount, BigDecimal::add)));
+        long[] categoryTotals = ledger.sumCentsByCategory(currentStart, currentEnd);
 
         // Build context string
         StringBuilder context = new StringBuilder();
@@ -93,27 +100,28 @@ public class AiService {
         context.append("Current Month (").append(currentMonth.getMonth()).append(" ").append(currentMonth.getYear())
                 .append("):\n");
         context.append("- Total Spent: ₹").append(currentTotal).append("\n");
-        context.append("- Number of Transactions: ").append(currentMonthExpenses.size()).append("\n");
+        context.append("- Number of Transactions: ").append(ledger.count(currentStart, currentEnd)).append("\n");
         context.append("- Daily Average: ₹").append(
                 currentTotal.divide(BigDecimal.valueOf(Math.max(1, LocalDate.now().getDayOfMonth())), 2,
                         java.math.RoundingMode.HALF_UP))
                 .append("\n\n");
 
         context.append("Category Breakdown:\n");
-        categoryTotals.entrySet().stream()
-                .sorted((a, b) -> b.getValue().compareTo(a.getValue()))
-                .forEach(e -> context.append("- ").append(e.getKey()).append(": ₹").append(e.getValue()).append("\n"));
+        IntStream.range(0, categoryTotals.length)
+                .filter(i -> categoryTotals[i] > 0)
+                .boxed()
+                .sorted((a, b) -> Long.compare(categoryTotals[b], categoryTotals[a]))
+                .forEach(i -> context.append("- ").append(ledger.categoryName(i)).append(": ₹")
+                        .append(Cents.toAmount(categoryTotals[i])).append("\n"));
 
         context.append("\nLast Month (").append(lastMonth.getMonth()).append(" ").append(lastMonth.getYear())
                 .append("):\n");
         context.append("- Total Spent: ₹").append(lastMonthTotal).append("\n");
-        context.append("- Number of Transactions: ").append(lastMonthExpenses.size()).append("\n\n");
+        context.append("- Number of Transactions: ").append(ledger.count(lastStart, lastEnd)).append("\n\n");
 
         // Recent transactions
         context.append("Recent Transactions (last 5):\n");
-        currentMonthExpenses.stream()
-                .sorted((a, b) -> b.getExpenseDate().compareTo(a.getExpenseDate()))
-                .limit(5)
+        expenseRepository.findTop5ByUserIdAndExpenseDateBetweenOrderByExpenseDateDesc(userId, currentStart, currentEnd)
                 .forEach(e -> context.append("- ").append(e.getExpenseDate()).append(": ")
                         .append(e.getDescription()).append(" - ₹").append(e.getAmount())
                         .append(" (").append(e.getCategory() != null ? e.getCategory().getName() : "Uncategorized")
@@ -1,24 +1,31 @@
 package com.cashflow.service;
 
 import com.cashflow.dto.AlertDTO;
+import com.cashflow.model.AlertEvent;
 import com.cashflow.model.Threshold;
+import com.cashflow.repository.AlertEventRepository;
 import com.cashflow.repository.ExpenseRepository;
 import com.cashflow.repository.ThresholdRepository;
 import com.cashflow.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Service class for Alert-related business logic
- * Handles threshold breach detection and alert generation
+ * Handles threshold breach detection and alert generation. Breach and warning
+ * alerts are recorded once per threshold period as AlertEvents, which
+ * AlertStreamService pushes to subscribed clients.
  */
 @Service
 @RequiredArgsConstructor
@@ -29,117 +36,175 @@ public class AlertService {
     private final ThresholdRepository thresholdRepository;
     private final ExpenseRepository expenseRepository;
     private final UserRepository userRepository;
+    private final AlertEventRepository alertEventRepository;
+    private final DataVersionService dataVersionService;
 
     /**
-     * Check all thresholds for a user and generate alerts
+     * Evaluate the active thresholds of a user without changing any state
+     * Used by GET endpoints that clients poll: it runs in a read-only
+     * transaction and prices every threshold from one grouped period-spending
+     * query. Breach flags and alert events only change on expense writes and
+     * in the threshold sweep.
      */
-    public List<AlertDTO> checkThresholdBreaches(Long userId) {
-        List<AlertDTO> alerts = new ArrayList<>();
-        List<Threshold> activeThresholds = thresholdRepository.findByUserIdAndIsActiveTrue(userId);
+    @Transactional(readOnly = true)
+    public List<AlertDTO> evaluateThresholds(Long userId) {
+        List<Threshold> activeThresholds = thresholdRepository.findActiveWithDetailsByUserId(userId);
+        if (activeThresholds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        PeriodSpending spending = PeriodSpending.load(expenseRepository, userId, LocalDate.now());
 
+        List<AlertDTO> alerts = new ArrayList<>();
         for (Threshold threshold : activeThresholds) {
-            AlertDTO alert = checkSingleThreshold(threshold);
+            AlertDTO alert = evaluateThreshold(threshold, spending);
             if (alert != null) {
                 alerts.add(alert);
             }
         }
-
         return alerts;
     }
 
     /**
-     * Get all breach alerts for a user
+     * Re-evaluate the thresholds of a user after an expense write and apply state transitions
+     * A breach flag flips with a conditional update, so only the request that
+     * actually changes it logs and bumps the data version. Breach and warning
+     * alerts are recorded once per period. Callers hold the user's
+     * data-version row lock.
      */
-    @Transactional(readOnly = true)
-    public List<AlertDTO> getThresholdBreachedAlerts(Long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new com.cashflow.exception.ResourceNotFoundException("User", "id", userId);
+    public void updateThresholdStates(Long userId) {
+        List<Threshold> activeThresholds = thresholdRepository.findActiveWithDetailsByUserId(userId);
+        if (activeThresholds.isEmpty()) {
+            return;
         }
-
-        List<AlertDTO> alerts = new ArrayList<>();
-        List<Threshold> activeThresholds = thresholdRepository.findByUserIdAndIsActiveTrue(userId);
+        PeriodSpending spending = PeriodSpending.load(expenseRepository, userId, LocalDate.now());
 
         for (Threshold threshold : activeThresholds) {
-            BigDecimal currentSpending = calculateCurrentSpending(threshold);
-            BigDecimal limitAmount = threshold.getLimitAmount();
-
-            double usagePercentage = currentSpending.divide(limitAmount, 4, RoundingMode.HALF_UP)
-                    .multiply(BigDecimal.valueOf(100)).doubleValue();
-
-            String categoryName = threshold.getCategory() != null ? threshold.getCategory().getName() : null;
-            Long categoryId = threshold.getCategory() != null ? threshold.getCategory().getId() : null;
-            String username = threshold.getUser().getUsername();
-
-            // Generate alert if threshold is breached (100%+)
-            if (usagePercentage >= 100) {
-                alerts.add(AlertDTO.createBreachAlert(userId, username, categoryId, categoryName,
-                        limitAmount, currentSpending));
+            AlertDTO alert = evaluateThreshold(threshold, spending);
+            boolean breached = alert != null && "BREACH".equals(alert.getAlertType());
+            if (breached != Boolean.TRUE.equals(threshold.getIsBreached())
+                    && thresholdRepository.updateBreachedFlags(List.of(threshold.getId()), breached,
+                            LocalDateTime.now()) > 0) {
+                dataVersionService.bump(userId);
+                if (breached) {
+                    log.warn("Threshold breached for user {} - Category: {}, Limit: {}, Current: {}",
+                            alert.getUsername(), alert.getCategoryName(), alert.getLimitAmount(),
+                            alert.getCurrentSpending());
+                }
             }
-            // Generate warning alert if approaching threshold
-            else if (usagePercentage >= threshold.getAlertPercentage()) {
-                alerts.add(AlertDTO.createWarningAlert(userId, username, categoryId, categoryName,
-                        limitAmount, currentSpending));
+            if (alert != null) {
+                if (!breached) {
+                    log.info("Threshold warning for user {} - Category: {}, Usage: {}%",
+                            alert.getUsername(), alert.getCategoryName(), alert.getUsagePercentage());
+                }
+                recordAlert(threshold, alert);
             }
         }
-
-        return alerts;
     }
 
     /**
-     * Check a single threshold and generate alert if necessary
+     * Get all breach alerts for a user
      */
-    private AlertDTO checkSingleThreshold(Threshold threshold) {
-        BigDecimal currentSpending = calculateCurrentSpending(threshold);
-        BigDecimal limitAmount = threshold.getLimitAmount();
+    @Transactional(readOnly = true)
+    public List<AlertDTO> getThresholdBreachedAlerts(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new com.cashflow.exception.ResourceNotFoundException("User", "id", userId);
+        }
 
-        double usagePercentage = currentSpending.divide(limitAmount, 4, RoundingMode.HALF_UP)
-                .multiply(BigDecimal.valueOf(100)).doubleValue();
+        return evaluateThresholds(userId);
+    }
 
-        String categoryName = threshold.getCategory() != null ? threshold.getCategory().getName() : null;
+    /**
+     * Build the breach or warning alert of a threshold from its period spending, or null if below both
+     */
+    private AlertDTO evaluateThreshold(Threshold threshold, PeriodSpending spending) {
         Long categoryId = threshold.getCategory() != null ? threshold.getCategory().getId() : null;
-        String username = threshold.getUser().getUsername();
-        Long userId = threshold.getUser().getId();
+        String categoryName = threshold.getCategory() != null ? threshold.getCategory().getName() : null;
+        long currentCents = spending.centsFor(categoryId, threshold.getThresholdType());
+        double usagePercentage = Cents.percentage(currentCents, Cents.of(threshold.getLimitAmount()));
 
-        // Check if threshold is breached
+        AlertDTO alert;
         if (usagePercentage >= 100) {
-            // Update threshold breach status
-            if (!threshold.getIsBreached()) {
-                threshold.setIsBreached(true);
-                threshold.setLastAlertSent(LocalDateTime.now());
-                thresholdRepository.save(threshold);
-                log.warn("Threshold breached for user {} - Category: {}, Limit: {}, Current: {}",
-                        username, categoryName, limitAmount, currentSpending);
-            }
-            return AlertDTO.createBreachAlert(userId, username, categoryId, categoryName,
-                    limitAmount, currentSpending);
+            alert = AlertDTO.createBreachAlert(threshold.getUser().getId(), threshold.getUser().getUsername(),
+                    categoryId, categoryName, threshold.getLimitAmount(), Cents.toAmount(currentCents));
+        } else if (usagePercentage >= threshold.getAlertPercentage()) {
+            alert = AlertDTO.createWarningAlert(threshold.getUser().getId(), threshold.getUser().getUsername(),
+                    categoryId, categoryName, threshold.getLimitAmount(), Cents.toAmount(currentCents));
+        } else {
+            return null;
         }
-        // Check if warning threshold is reached
-        else if (usagePercentage >= threshold.getAlertPercentage()) {
-            log.info("Threshold warning for user {} - Category: {}, Usage: {}%",
-                    username, categoryName, usagePercentage);
-            return AlertDTO.createWarningAlert(userId, username, categoryId, categoryName,
-                    limitAmount, currentSpending);
+        alert.setThresholdId(threshold.getId());
+        return alert;
+    }
+
+    /**
+     * Record breach alerts for thresholds newly flagged by the threshold sweep
+     */
+    public void recordSweepBreaches(Map<Long, BigDecimal> spendingByThresholdId) {
+        for (Threshold threshold : thresholdRepository.findWithDetailsByIdIn(spendingByThresholdId.keySet())) {
+            BigDecimal currentSpending = spendingByThresholdId.get(threshold.getId());
+            recordAlert(threshold, AlertDTO.createBreachAlert(threshold.getUser().getId(),
+                    threshold.getUser().getUsername(),
+                    threshold.getCategory() != null ? threshold.getCategory().getId() : null,
+                    threshold.getCategory() != null ? threshold.getCategory().getName() : null,
+                    threshold.getLimitAmount(), currentSpending));
         }
-        // Reset breach status if spending dropped below limit
-        else if (threshold.getIsBreached()) {
-            threshold.setIsBreached(false);
-            thresholdRepository.save(threshold);
+    }
+
+    /**
+     * Persist an alert unless one of its type was already recorded this period
+     * Callers hold the user's data-version row lock, which serializes the
+     * check-then-insert per user.
+     */
+    private void recordAlert(Threshold threshold, AlertDTO alert) {
+        LocalDate periodStart = threshold.periodStart(LocalDate.now());
+        alert.setThresholdId(threshold.getId());
+        if (alertEventRepository.existsByThresholdIdAndAlertTypeAndPeriodStart(
+                threshold.getId(), alert.getAlertType(), periodStart)) {
+            return;
         }
+        alertEventRepository.save(AlertEvent.builder()
+                .thresholdId(threshold.getId())
+                .alertType(alert.getAlertType())
+                .periodStart(periodStart)
+                .categoryId(alert.getCategoryId())
+                .categoryName(alert.getCategoryName())
+                .message(alert.getMessage())
+                .limitAmount(alert.getLimitAmount())
+                .currentSpending(alert.getCurrentSpending())
+                .usagePercentage(alert.getUsagePercentage())
+                .user(threshold.getUser())
+                .build());
+    }
 
-        return null;
+    /**
+     * Get recorded alert events for user after a given event id
+     */
+    @Transactional(readOnly = true)
+    public List<AlertDTO> getAlertEvents(Long userId, Long afterId, int limit) {
+        if (!userRepository.existsById(userId)) {
+            throw new com.cashflow.exception.ResourceNotFoundException("User", "id", userId);
+        }
+        return alertEventRepository.findByUserIdAfter(userId, afterId, PageRequest.of(0, limit)).stream()
+                .map(this::mapEventToDTO)
+                .collect(Collectors.toList());
     }
 
     /**
-     * Calculate current spending based on threshold type and category
+     * Get recorded alert events of all users after a given event id
      */
-    private BigDecimal calculateCurrentSpending(Threshold threshold) {
-        Long userId = threshold.getUser().getId();
+    @Transactional(readOnly = true)
+    public List<AlertDTO> getAlertEventsAfter(Long afterId, int limit) {
+        return alertEventRepository.findAfter(afterId, PageRequest.of(0, limit)).stream()
+                .map(this::mapEventToDTO)
+                .collect(Collectors.toList());
+    }
 
-        if (threshold.getCategory() != null) {
-            return expenseRepository.getTotalExpensesByUserIdAndCategoryId(userId, threshold.getCategory().getId());
-        } else {
-            return expenseRepository.getTotalExpensesByUserId(userId);
-        }
+    /**
+     * Get the highest recorded alert event id, 0 without events
+     */
+    @Transactional(readOnly = true)
+    public long getLatestAlertEventId() {
+        return alertEventRepository.findMaxId();
     }
 
     /**
@@ -157,5 +222,26 @@ public class AlertService {
     public List<Threshold> getBreachedThresholds(Long userId) {
         return thresholdRepository.findByUserIdAndIsBreachedTrue(userId);
     }
+
+    /**
+     * Map AlertEvent entity to DTO
+     */
+    private AlertDTO mapEventToDTO(AlertEvent event) {
+        return AlertDTO.builder()
+                .id(event.getId())
+                .userId(event.getUser().getId())
+                .username(event.getUser().getUsername())
+                .thresholdId(event.getThresholdId())
+                .categoryId(event.getCategoryId())
+                .categoryName(event.getCategoryName())
+                .alertType(event.getAlertType())
+                .message(event.getMessage())
+                .limitAmount(event.getLimitAmount())
+                .currentSpending(event.getCurrentSpending())
+                .usagePercentage(event.getUsagePercentage())
+                .isRead(false)
+                .createdAt(event.getCreatedAt())
+                .build();
+    }
 }
 // Alert batch processing
@@ -0,0 +1,167 @@
+package com.cashflow.service;
+
+import com.cashflow.dto.AlertDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Service that pushes recorded alert events to clients over Server-Sent Events
+ * The alert_events table acts as the outbox: events are committed with the
+ * change that raised them, and every instance relays them to its own
+ * subscribers by following the event id. Ids come from the sequence one at
+ * a time, so they follow insert order; an event that commits after a higher
+ * id has been read is still picked up as long as it commits within the
+ * dispatch window (see DispatchCursor). Clients reconnecting with
+ * Last-Event-ID are replayed what they missed, so delivery is at least once.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AlertStreamService {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final AlertService alertService;
+    private final ShardRouter shardRouter;
+
+    private final Map<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final Map<Integer, DispatchCursor> cursors = new ConcurrentHashMap<>();
+
+    @Value("${app.alerts.stream-timeout:PT30M}")
+    private Duration streamTimeout;
+
+    @Value("${app.alerts.dispatch-window:PT30S}")
+    private Duration dispatchWindow;
+
+    /**
+     * Open an alert stream for user, replaying events after lastEventId
+     * Without a Last-Event-ID the stream starts with the next new event. The
+     * emitter is registered before the replay query, so an event committed
+     * in between is dispatched rather than lost; holding the emitter's lock
+     * during the replay keeps dispatched events behind the replayed ones.
+     */
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Set<SseEmitter> userEmitters = subscribers.computeIfAbsent(userId, id -> new CopyOnWriteArraySet<>());
+        Runnable remove = () -> userEmitters.remove(emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        synchronized (emitter) {
+            userEmitters.add(emitter);
+            try {
+                // Long.MAX_VALUE replays nothing but still checks that the user exists
+                long afterId = lastEventId != null ? lastEventId : Long.MAX_VALUE;
+                List<AlertDTO> missed;
+                do {
+                    missed = alertService.getAlertEvents(userId, afterId, BATCH_SIZE);
+                    for (AlertDTO alert : missed) {
+                        afterId = alert.getId();
+                        send(emitter, alert);
+                    }
+                } while (missed.size() == BATCH_SIZE);
+            } catch (RuntimeException e) {
+                remove.run();
+                throw e;
+            }
+        }
+        return emitter;
+    }
+
+    /**
+     * Relay newly committed alert events of every shard to local subscribers
+     * Runs without subscribers too, so the cursors stay current.
+     */
+    @Scheduled(fixedDelayString = "${app.alerts.dispatch-interval:PT2S}")
+    public void dispatchAlerts() {
+        shardRouter.forEachShard(shard -> dispatchShard(
+                cursors.computeIfAbsent(shard, s -> new DispatchCursor(alertService.getLatestAlertEventId()))));
+    }
+
+    private void dispatchShard(DispatchCursor cursor) {
+        long afterId = cursor.floor();
+        List<AlertDTO> alerts;
+        do {
+            alerts = alertService.getAlertEventsAfter(afterId, BATCH_SIZE);
+            for (AlertDTO alert : alerts) {
+                afterId = alert.getId();
+                if (!cursor.markDelivered(alert.getId())) {
+                    continue;
+                }
+                Set<SseEmitter> userEmitters = subscribers.get(alert.getUserId());
+                if (userEmitters != null) {
+                    userEmitters.forEach(emitter -> {
+                        synchronized (emitter) {
+                            send(emitter, alert);
+                        }
+                    });
+                }
+            }
+        } while (alerts.size() == BATCH_SIZE);
+        cursor.advance(afterId, System.currentTimeMillis(), dispatchWindow.toMillis());
+    }
+
+    /**
+     * Dispatch position in one shard's alert_events
+     * Every event up to floor has been delivered or had a full dispatch
+     * window to commit after a higher id was read. Ids above floor are read
+     * again on each run and delivered once; marks record the highest id
+     * read at each run, and floor moves up to a mark once it is a window old.
+     */
+    static class DispatchCursor {
+        private final Set<Long> delivered = new HashSet<>();
+        private final Deque<long[]> marks = new ArrayDeque<>();
+        private long floor;
+
+        DispatchCursor(long latestId) {
+            floor = latestId;
+        }
+
+        long floor() {
+            return floor;
+        }
+
+        /**
+         * False if the event was already delivered
+         */
+        boolean markDelivered(long id) {
+            return id > floor && delivered.add(id);
+        }
+
+        void advance(long highestRead, long now, long windowMillis) {
+            marks.addLast(new long[] { now, Math.max(highestRead, floor) });
+            while (!marks.isEmpty() && marks.peekFirst()[0] <= now - windowMillis) {
+                floor = Math.max(floor, marks.removeFirst()[1]);
+            }
+            delivered.removeIf(id -> id <= floor);
+        }
+    }
+
+    private void send(SseEmitter emitter, AlertDTO alert) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(alert.getId()))
+                    .name("alert")
+                    .data(alert));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping alert stream: {}", e.getMessage());
+            emitter.completeWithError(e);
+        }
+    }
+}
@@ -13,7 +13,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -24,9 +28,26 @@ import java.util.stream.Collectors;
 @Transactional
 public class CategoryService {
 
+    private static final String[][] DEFAULT_CATEGORIES = {
+            { "Food & Dining", "Restaurants, groceries, and food delivery", "#FF6B6B" },
+            { "Transportation", "Gas, public transit, ride-sharing", "#4ECDC4" },
+            { "Shopping", "Clothing, electronics, household items", "#9B59B6" },
+            { "Bills & Utilities", "Electricity, water, internet, phone", "#3498DB" },
+            { "Entertainment", "Movies, games, subscriptions", "#F39C12" },
+            { "Healthcare", "Medical expenses, pharmacy, insurance", "#1ABC9C" },
+            { "Education", "Courses, books, tuition", "#E74C3C" },
+            { "Travel", "Flights, hotels, vacation expenses", "#2ECC71" },
+            { "Other", "Miscellaneous expenses", "#95A5A6" }
+    };
+
+    private static final List<String> DEFAULT_CATEGORY_NAMES = Arrays.stream(DEFAULT_CATEGORIES)
+            .map(cat -> cat[0])
+            .toList();
+
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
     private final ExpenseRepository expenseRepository;
+    private final DataVersionService dataVersionService;
 
     /**
      * Create a new category
@@ -50,6 +71,7 @@ public class CategoryService {
                 .build();
 
         Category savedCategory = categoryRepository.save(category);
+        dataVersionService.bump(user.getId());
         return mapToDTO(savedCategory);
     }
 
@@ -76,6 +98,21 @@ public class CategoryService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Search a user's categories by name
+     */
+    @Transactional(readOnly = true)
+    public List<CategoryDTO> searchCategories(Long userId, String searchTerm) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+        String term = searchTerm.trim().toLowerCase()
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return categoryRepository.searchCategories(userId, term).stream()
+                .map(this::mapToDTO)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Update category
      */
@@ -93,6 +130,7 @@ public class CategoryService {
             category.setColorCode(categoryDTO.getColorCode());
 
         Category updatedCategory = categoryRepository.save(category);
+        dataVersionService.bump(category.getUser().getId());
         return mapToDTO(updatedCategory);
     }
 
@@ -103,39 +141,39 @@ public class CategoryService {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
         categoryRepository.delete(category);
+        dataVersionService.bump(category.getUser().getId());
     }
 
     /**
      * Create default categories for a new user
+     * Idempotent: one query finds the defaults the user already has, and the
+     * missing ones are inserted as a single batch.
      */
     public void createDefaultCategories(Long userId) {
+        Set<String> existing = new HashSet<>(categoryRepository.findNamesByUserIdAndNameIn(
+                userId, DEFAULT_CATEGORY_NAMES));
+        if (existing.size() == DEFAULT_CATEGORIES.length) {
+            return;
+        }
+
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
 
-        String[][] defaultCategories = {
-                { "Food & Dining", "Restaurants, groceries, and food delivery", "#FF6B6B" },
-                { "Transportation", "Gas, public transit, ride-sharing", "#4ECDC4" },
-                { "Shopping", "Clothing, electronics, household items", "#9B59B6" },
-                { "Bills & Utilities", "Electricity, water, internet, phone", "#3498DB" },
-                { "Entertainment", "Movies, games, subscriptions", "#F39C12" },
-                { "Healthcare", "Medical expenses, pharmacy, insurance", "#1ABC9C" },
-                { "Education", "Courses, books, tuition", "#E74C3C" },
-                { "Travel", "Flights, hotels, vacation expenses", "#2ECC71" },
-                { "Other", "Miscellaneous expenses", "#95A5A6" }
-        };
-
-        for (String[] cat : defaultCategories) {
-            if (!categoryRepository.existsByNameAndUserId(cat[0], userId)) {
-                Category category = Category.builder()
+        List<Category> missing = new ArrayList<>();
+        for (String[] cat : DEFAULT_CATEGORIES) {
+            if (!existing.contains(cat[0])) {
+                missing.add(Category.builder()
                         .name(cat[0])
                         .description(cat[1])
                         .colorCode(cat[2])
                         .isDefault(true)
                         .user(user)
-                        .build();
-                categoryRepository.save(category);
+                        .build());
             }
         }
+        // Sequence ids are preallocated, so the inserts go out as one JDBC batch
+        categoryRepository.saveAll(missing);
+        dataVersionService.bump(userId);
     }
 
     /**
@@ -0,0 +1,67 @@
+package com.cashflow.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money arithmetic in long cents
+ * Amounts are stored with scale 2, so aggregations can sum plain longs and
+ * convert to BigDecimal only when building DTOs. Every operation that could
+ * overflow throws ArithmeticException instead of wrapping.
+ */
+public final class Cents {
+
+    private Cents() {
+    }
+
+    /**
+     * Cents of an amount; throws if it has more than two decimals or does not fit
+     */
+    public static long of(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    /**
+     * An amount rounded half up to two decimals, as the NUMERIC(10,2) columns store it
+     * Request amounts go through this before they reach an entity, so of()
+     * never sees a third decimal.
+     */
+    public static BigDecimal round(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Cents of a nullable amount, null counting as zero
+     */
+    public static long ofNullable(BigDecimal amount) {
+        return amount != null ? of(amount) : 0;
+    }
+
+    /**
+     * Amount of a cent total; zero stays unscaled like an empty SUM
+     */
+    public static BigDecimal toAmount(long cents) {
+        return cents == 0 ? BigDecimal.ZERO : BigDecimal.valueOf(cents, 2);
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    /**
+     * Share of a total in percent with two decimals, rounded half up, or 0 if the total is not positive
+     * Same result as part.divide(total, 4, HALF_UP).multiply(100).doubleValue().
+     */
+    public static double percentage(long part, long total) {
+        if (total <= 0) {
+            return 0.0;
+        }
+        long scaled = Math.multiplyExact(Math.abs(part), 10_000L);
+        long basisPoints = scaled / total;
+        long remainder = scaled % total;
+        if (remainder >= total - remainder) {
+            basisPoints++;
+        }
+        return (part < 0 ? -basisPoints : basisPoints) / 100.0;
+    }
+}
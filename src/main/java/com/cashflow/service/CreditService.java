@@ -1,18 +1,36 @@
 package com.cashflow.service;
 
+import com.cashflow.dto.CreditBreakdownDTO;
 import com.cashflow.dto.CreditDTO;
+import com.cashflow.dto.IncomeTrendDTO;
 import com.cashflow.exception.ResourceNotFoundException;
 import com.cashflow.model.Credit;
+import com.cashflow.model.CreditMonthlyRollup;
 import com.cashflow.model.User;
+import com.cashflow.repository.CreditMonthlyRollupRepository;
 import com.cashflow.repository.CreditRepository;
+import com.cashflow.repository.ExpenseRepository;
 import com.cashflow.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -21,10 +39,16 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Slf4j
 public class CreditService {
 
     private final CreditRepository creditRepository;
     private final UserRepository userRepository;
+    private final ExpenseRepository expenseRepository;
+    private final CreditMonthlyRollupRepository rollupRepository;
+    private final DataVersionService dataVersionService;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Add a new credit
@@ -34,7 +58,7 @@ public class CreditService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", creditDTO.getUserId()));
 
         Credit credit = Credit.builder()
-                .amount(creditDTO.getAmount())
+                .amount(Cents.round(creditDTO.getAmount()))
                 .source(creditDTO.getSource())
                 .description(creditDTO.getDescription())
                 .creditDate(creditDTO.getCreditDate() != null ? creditDTO.getCreditDate() : LocalDate.now())
@@ -45,6 +69,8 @@ public class CreditService {
                 .build();
 
         Credit savedCredit = creditRepository.save(credit);
+        dataVersionService.bump(user.getId());
+        applyToRollup(savedCredit, 1);
         return mapToDTO(savedCredit);
     }
 
@@ -114,9 +140,11 @@ public class CreditService {
     public CreditDTO updateCredit(Long id, CreditDTO creditDTO) {
         Credit credit = creditRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Credit", "id", id));
+        dataVersionService.bump(credit.getUser().getId());
+        applyToRollup(credit, -1);
 
         if (creditDTO.getAmount() != null)
-            credit.setAmount(creditDTO.getAmount());
+            credit.setAmount(Cents.round(creditDTO.getAmount()));
         if (creditDTO.getSource() != null)
             credit.setSource(creditDTO.getSource());
         if (creditDTO.getDescription() != null)
@@ -127,6 +155,7 @@ public class CreditService {
             credit.setCreditType(creditDTO.getCreditType());
 
         Credit updatedCredit = creditRepository.save(credit);
+        applyToRollup(updatedCredit, 1);
         return mapToDTO(updatedCredit);
     }
 
@@ -136,9 +165,145 @@ public class CreditService {
     public void deleteCredit(Long id) {
         Credit credit = creditRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Credit", "id", id));
+        dataVersionService.bump(credit.getUser().getId());
+        applyToRollup(credit, -1);
         creditRepository.delete(credit);
     }
 
+    /**
+     * Get income totals by credit type
+     */
+    @Transactional(readOnly = true)
+    public List<CreditBreakdownDTO> getCreditSummaryByType(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+        return buildBreakdown(rollupRepository.getSummaryByType(userId));
+    }
+
+    /**
+     * Get income totals by source
+     */
+    @Transactional(readOnly = true)
+    public List<CreditBreakdownDTO> getCreditSummaryBySource(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+        return buildBreakdown(rollupRepository.getSummaryBySource(userId));
+    }
+
+    /**
+     * Get income, spending and savings rate for the last N months
+     * Income comes from the monthly rollups, spending from one grouped query
+     */
+    @Transactional(readOnly = true)
+    public List<IncomeTrendDTO> getIncomeTrends(Long userId, int months) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+        YearMonth current = YearMonth.now();
+        YearMonth first = current.minusMonths(Math.max(1, months) - 1);
+
+        Map<Integer, Object[]> income = new HashMap<>();
+        for (Object[] row : rollupRepository.getMonthlyTotals(userId,
+                first.getYear() * 100 + first.getMonthValue(), current.getYear() * 100 + current.getMonthValue())) {
+            income.put(((Number) row[0]).intValue() * 100 + ((Number) row[1]).intValue(), row);
+        }
+        Map<Integer, BigDecimal> expenses = new HashMap<>();
+        for (Object[] row : expenseRepository.getMonthlyTotalsByDateRange(userId, first.atDay(1),
+                current.atEndOfMonth())) {
+            expenses.put(((Number) row[0]).intValue() * 100 + ((Number) row[1]).intValue(), (BigDecimal) row[2]);
+        }
+
+        List<IncomeTrendDTO> trends = new ArrayList<>();
+        for (YearMonth ym = first; !ym.isAfter(current); ym = ym.plusMonths(1)) {
+            int period = ym.getYear() * 100 + ym.getMonthValue();
+            Object[] incomeRow = income.get(period);
+            BigDecimal totalIncome = incomeRow != null ? (BigDecimal) incomeRow[2] : BigDecimal.ZERO;
+            BigDecimal totalExpenses = expenses.getOrDefault(period, BigDecimal.ZERO);
+            BigDecimal savings = totalIncome.subtract(totalExpenses);
+
+            trends.add(IncomeTrendDTO.builder()
+                    .year(ym.getYear())
+                    .month(ym.getMonthValue())
+                    .monthName(ym.getMonth().getDisplayName(TextStyle.SHORT, Locale.ENGLISH))
+                    .totalIncome(totalIncome)
+                    .creditCount(incomeRow != null ? ((Number) incomeRow[3]).longValue() : 0)
+                    .totalExpenses(totalExpenses)
+                    .savings(savings)
+                    .savingsRate(totalIncome.compareTo(BigDecimal.ZERO) > 0
+                            ? savings.divide(totalIncome, 4, RoundingMode.HALF_UP)
+                                    .multiply(BigDecimal.valueOf(100)).doubleValue()
+                            : null)
+                    .build());
+        }
+        return trends;
+    }
+
+    /**
+     * Build the rollups from existing credits on every shard whose table is still empty
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void backfillRollups() {
+        shardRouter.forEachShard(shard -> transactionTemplate.executeWithoutResult(status -> {
+            if (rollupRepository.count() == 0 && creditRepository.count() > 0) {
+                int rows = rollupRepository.rebuildAll();
+                log.info("Backfilled {} credit monthly rollup rows on shard {}", rows, shard);
+            }
+        }));
+    }
+
+    /**
+     * Add (sign = 1) or remove (sign = -1) a credit from its monthly rollup
+     * Callers bump the user's data version first; that row lock serializes
+     * rollup maintenance per user, so update-then-insert cannot race.
+     */
+    private void applyToRollup(Credit credit, int sign) {
+        Long userId = credit.getUser().getId();
+        LocalDate date = credit.getCreditDate();
+        String creditType = credit.getCreditType() != null ? credit.getCreditType() : "OTHER";
+        BigDecimal amount = sign > 0 ? credit.getAmount() : credit.getAmount().negate();
+
+        int updated = rollupRepository.applyDelta(userId, date.getYear(), date.getMonthValue(),
+                creditType, credit.getSource(), amount, sign);
+        if (updated == 0 && sign > 0) {
+            rollupRepository.save(CreditMonthlyRollup.builder()
+                    .user(credit.getUser())
+                    .periodYear(date.getYear())
+                    .periodMonth(date.getMonthValue())
+                    .creditType(creditType)
+                    .source(credit.getSource())
+                    .totalAmount(amount)
+                    .creditCount(1L)
+                    .build());
+        } else if (sign < 0) {
+            rollupRepository.deleteEmptyByUserId(userId);
+        }
+    }
+
+    /**
+     * Map grouped [name, total, count] rows to breakdown DTOs, largest first
+     */
+    private List<CreditBreakdownDTO> buildBreakdown(List<Object[]> rows) {
+        long total = rows.stream()
+                .mapToLong(row -> Cents.of((BigDecimal) row[1]))
+                .reduce(0, Cents::add);
+
+        return rows.stream()
+                .map(row -> {
+                    BigDecimal amount = (BigDecimal) row[1];
+                    return CreditBreakdownDTO.builder()
+                            .name((String) row[0])
+                            .totalAmount(amount)
+                            .count(((Number) row[2]).longValue())
+                            .percentage(Cents.percentage(Cents.of(amount), total))
+                            .build();
+                })
+                .sorted(Comparator.comparing(CreditBreakdownDTO::getTotalAmount).reversed())
+                .collect(Collectors.toList());
+    }
+
     /**
      * Map Credit entity to DTO
      */
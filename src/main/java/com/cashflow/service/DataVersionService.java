@@ -0,0 +1,80 @@
+package com.cashflow.service;
+
+import com.cashflow.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Service for per-user data version tracking
+ * Every write to a user's expenses, credits, categories or thresholds bumps
+ * the version, so read endpoints can answer conditional GETs with a single
+ * lookup instead of recomputing the payload.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class DataVersionService {
+
+    /**
+     * Request attribute naming a representation other than JSON (set by RepresentationInterceptor)
+     */
+    public static final String REPRESENTATION_ATTRIBUTE = DataVersionService.class.getName() + ".representation";
+
+    private final UserRepository userRepository;
+    private final LedgerCacheService ledgerCacheService;
+
+    /**
+     * Bump the data version for a user
+     * Runs in the caller's transaction, so the new version only becomes
+     * visible together with the data it describes. The user's cached
+     * ledger is dropped after the commit.
+     */
+    public void bump(Long userId) {
+        userRepository.incrementDataVersion(userId);
+        ledgerCacheService.evictAfterCommit(List.of(userId));
+    }
+
+    /**
+     * Bump the data version for several users at once (batch jobs)
+     */
+    public void bumpAll(Collection<Long> userIds) {
+        if (!userIds.isEmpty()) {
+            userRepository.incrementDataVersions(userIds);
+            ledgerCacheService.evictAfterCommit(List.copyOf(userIds));
+        }
+    }
+
+    /**
+     * Build an ETag for a user's data
+     * Extra parts (e.g. the current date for time-relative stats) are folded
+     * into the tag. Returns null if the user does not exist.
+     * The tag is weak: bodies carry a per-response timestamp and may be
+     * gzipped, and Tomcat will not compress responses with a strong ETag.
+     * A CBOR response gets its own tag, so a cache revalidating one
+     * representation cannot be handed the other.
+     */
+    @Transactional(readOnly = true)
+    public String getETag(Long userId, Object... parts) {
+        return userRepository.findDataVersionById(userId)
+                .map(version -> {
+                    StringBuilder etag = new StringBuilder("W/\"").append(userId).append('-').append(version);
+                    for (Object part : parts) {
+                        etag.append('-').append(part);
+                    }
+                    RequestAttributes request = RequestContextHolder.getRequestAttributes();
+                    Object representation = request != null
+                            ? request.getAttribute(REPRESENTATION_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) : null;
+                    if (representation != null) {
+                        etag.append('-').append(representation);
+                    }
+                    return etag.append('"').toString();
+                })
+                .orElse(null);
+    }
+}
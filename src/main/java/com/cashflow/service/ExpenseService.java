@@ -1,6 +1,8 @@
 package com.cashflow.service;
 
 import com.cashflow.dto.ExpenseDTO;
+import com.cashflow.dto.ExpenseListDTO;
+import com.cashflow.dto.ExpenseSearchResultDTO;
 import com.cashflow.dto.ExpenseSummaryDTO;
 import com.cashflow.exception.ResourceNotFoundException;
 import com.cashflow.model.Category;
@@ -12,13 +14,16 @@ import com.cashflow.repository.ExpenseRepository;
 import com.cashflow.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -34,6 +39,8 @@ public class ExpenseService {
     private final CategoryRepository categoryRepository;
     private final CreditRepository creditRepository;
     private final AlertService alertService;
+    private final DataVersionService dataVersionService;
+    private final OptimisticLockRetryService optimisticLockRetryService;
 
     /**
      * Add a new expense
@@ -46,7 +53,7 @@ public class ExpenseService {
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "id", expenseDTO.getCategoryId()));
 
         Expense expense = Expense.builder()
-                .amount(expenseDTO.getAmount())
+                .amount(Cents.round(expenseDTO.getAmount()))
                 .description(expenseDTO.getDescription())
                 .expenseDate(expenseDTO.getExpenseDate() != null ? expenseDTO.getExpenseDate() : LocalDate.now())
                 .paymentMethod(expenseDTO.getPaymentMethod())
@@ -56,11 +63,15 @@ public class ExpenseService {
                 .user(user)
                 .category(category)
                 .build();
+        if (expense.getIsRecurring() && expense.hasSupportedRecurrence()) {
+            expense.setNextOccurrenceDate(expense.nthOccurrence(1));
+        }
 
         Expense savedExpense = expenseRepository.save(expense);
+        dataVersionService.bump(user.getId());
 
         // Check for threshold breaches after adding expense
-        alertService.checkThresholdBreaches(user.getId());
+        alertService.updateThresholdStates(user.getId());
 
         return mapToDTO(savedExpense);
     }
@@ -88,6 +99,95 @@ public class ExpenseService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get all expenses for a user in the compact list format
+     */
+    @Transactional(readOnly = true)
+    public ExpenseListDTO getCompactExpensesByUserId(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+
+        List<Expense> expenses = expenseRepository.findByUserIdOrderByExpenseDateDesc(userId);
+        Map<Long, String> categories = new LinkedHashMap<>();
+        List<ExpenseListDTO.Row> rows = new ArrayList<>(expenses.size());
+
+        for (Expense expense : expenses) {
+            Category category = expense.getCategory();
+            categories.computeIfAbsent(category.getId(), id -> category.getName());
+            rows.add(ExpenseListDTO.Row.builder()
+                    .id(expense.getId())
+                    .amount(expense.getAmount())
+                    .description(expense.getDescription())
+                    .expenseDate(expense.getExpenseDate())
+                    .paymentMethod(expense.getPaymentMethod())
+                    .merchantName(expense.getMerchantName())
+                    .isRecurring(expense.getIsRecurring())
+                    .recurringFrequency(expense.getRecurringFrequency())
+                    .categoryId(category.getId())
+                    .build());
+        }
+
+        return ExpenseListDTO.builder()
+                .userId(userId)
+                .username(user.getUsername())
+                .categories(categories)
+                .expenses(rows)
+                .build();
+    }
+
+    /**
+     * Search a user's expenses by description and merchant name
+     * Pages are keyset-based: the cursor encodes the rank and id of the last
+     * row of the previous page.
+     */
+    @Transactional(readOnly = true)
+    public ExpenseSearchResultDTO searchExpenses(Long userId, String query, Long categoryId,
+            LocalDate startDate, LocalDate endDate, String cursor, int limit) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        int pageSize = Math.max(1, Math.min(limit, 100));
+
+        Double afterRank = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = cursor.split(":", 2);
+                afterRank = Double.valueOf(parts[0]);
+                afterId = Long.valueOf(parts[1]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid search cursor: " + cursor);
+            }
+        }
+
+        // Fetch one extra row to know whether another page exists
+        List<Object[]> hits = expenseRepository.searchExpenseIds(userId, query.trim(), categoryId,
+                startDate, endDate, afterRank, afterId, pageSize + 1);
+        boolean hasMore = hits.size() > pageSize;
+        if (hasMore) {
+            hits = hits.subList(0, pageSize);
+        }
+
+        List<Long> ids = hits.stream().map(hit -> ((Number) hit[0]).longValue()).collect(Collectors.toList());
+        Map<Long, Expense> expensesById = expenseRepository.findWithDetailsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Expense::getId, Function.identity()));
+
+        String nextCursor = null;
+        if (hasMore) {
+            Object[] last = hits.get(hits.size() - 1);
+            nextCursor = ((Number) last[1]).doubleValue() + ":" + ((Number) last[0]).longValue();
+        }
+
+        return ExpenseSearchResultDTO.builder()
+                .query(query)
+                .expenses(ids.stream().map(expensesById::get).map(this::mapToDTO).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
     /**
      * Get expenses by category
      */
@@ -109,51 +209,7 @@ public class ExpenseService {
      */
     @Transactional(readOnly = true)
     public ExpenseSummaryDTO getUserOverallExpense(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
-
-        BigDecimal totalExpenses = expenseRepository.getTotalExpensesByUserId(userId);
-        BigDecimal totalCredits = creditRepository.getTotalCreditsByUserId(userId);
-        BigDecimal netBalance = totalCredits.subtract(totalExpenses);
-
-        long expenseCount = expenseRepository.countByUserId(userId);
-        long creditCount = creditRepository.countByUserId(userId);
-
-        // Get category breakdown
-        List<Object[]> categoryData = expenseRepository.getExpenseSummaryByCategory(userId);
-        List<ExpenseSummaryDTO.CategoryExpenseDTO> categoryBreakdown = new ArrayList<>();
-
-        for (Object[] data : categoryData) {
-            Long categoryId = (Long) data[0];
-            String categoryName = (String) data[1];
-            BigDecimal categoryTotal = (BigDecimal) data[2];
-            Long count = (Long) data[3];
-
-            double percentage = totalExpenses.compareTo(BigDecimal.ZERO) > 0
-                    ? categoryTotal.divide(totalExpenses, 4, RoundingMode.HALF_UP)
-                            .multiply(BigDecimal.valueOf(100)).doubleValue()
-                    : 0.0;
-
-            categoryBreakdown.add(ExpenseSummaryDTO.CategoryExpenseDTO.builder()
-                    .categoryId(categoryId)
-                    .categoryName(categoryName)
-                    .totalAmount(categoryTotal)
-                    .count(count.intValue())
-                    .percentage(percentage)
-                    .build());
-        }
-
-        return ExpenseSummaryDTO.builder()
-                .userId(userId)
-                .username(user.getUsername())
-                .totalExpenses(totalExpenses)
-                .totalCredits(totalCredits)
-                .netBalance(netBalance)
-                .expenseCount((int) expenseCount)
-                .creditCount((int) creditCount)
-                .period("ALL_TIME")
-                .categoryBreakdown(categoryBreakdown)
-                .build();
+        return buildSummary(userId, expenseRepository.getLedgerSummary(userId), "ALL_TIME");
     }
 
     /**
@@ -161,49 +217,60 @@ public class ExpenseService {
      */
     @Transactional(readOnly = true)
     public ExpenseSummaryDTO getExpenseSummaryByDateRange(Long userId, LocalDate startDate, LocalDate endDate) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
-
-        BigDecimal totalExpenses = expenseRepository.getTotalExpensesByUserIdAndDateRange(userId, startDate, endDate);
-        BigDecimal totalCredits = creditRepository.getTotalCreditsByUserIdAndDateRange(userId, startDate, endDate);
-        BigDecimal netBalance = totalCredits.subtract(totalExpenses);
+        return buildSummary(userId, expenseRepository.getLedgerSummaryByDateRange(userId, startDate, endDate),
+                startDate + " to " + endDate);
+    }
 
-        List<Expense> expenses = expenseRepository.findByUserIdAndExpenseDateBetween(userId, startDate, endDate);
-        int expenseCount = expenses.size();
+    /**
+     * Build a summary from ledger summary rows
+     * Expense totals and counts are the sums of the per-category rows
+     */
+    private ExpenseSummaryDTO buildSummary(Long userId, List<Object[]> ledgerRows, String period) {
+        String username = null;
+        BigDecimal totalCredits = BigDecimal.ZERO;
+        long creditCount = 0;
+        long totalExpenseCents = 0;
+        long expenseCount = 0;
+        List<Object[]> categoryData = new ArrayList<>();
+
+        for (Object[] row : ledgerRows) {
+            if ("CREDIT".equals(row[0])) {
+                username = (String) row[2];
+                totalCredits = (BigDecimal) row[3];
+                creditCount = ((Number) row[4]).longValue();
+            } else {
+                totalExpenseCents = Cents.add(totalExpenseCents, Cents.of((BigDecimal) row[3]));
+                expenseCount += ((Number) row[4]).longValue();
+                categoryData.add(row);
+            }
+        }
+        if (username == null) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
 
-        // Get category breakdown for date range
-        List<Object[]> categoryData = expenseRepository.getExpenseSummaryByCategoryAndDateRange(userId, startDate,
-                endDate);
         List<ExpenseSummaryDTO.CategoryExpenseDTO> categoryBreakdown = new ArrayList<>();
-
         for (Object[] data : categoryData) {
-            Long categoryId = (Long) data[0];
-            String categoryName = (String) data[1];
-            BigDecimal categoryTotal = (BigDecimal) data[2];
-            Long count = (Long) data[3];
-
-            double percentage = totalExpenses.compareTo(BigDecimal.ZERO) > 0
-                    ? categoryTotal.divide(totalExpenses, 4, RoundingMode.HALF_UP)
-                            .multiply(BigDecimal.valueOf(100)).doubleValue()
-                    : 0.0;
+            BigDecimal categoryTotal = (BigDecimal) data[3];
 
             categoryBreakdown.add(ExpenseSummaryDTO.CategoryExpenseDTO.builder()
-                    .categoryId(categoryId)
-                    .categoryName(categoryName)
+                    .categoryId((Long) data[1])
+                    .categoryName((String) data[2])
                     .totalAmount(categoryTotal)
-                    .count(count.intValue())
-                    .percentage(percentage)
+                    .count(((Number) data[4]).intValue())
+                    .percentage(Cents.percentage(Cents.of(categoryTotal), totalExpenseCents))
                     .build());
         }
+        BigDecimal totalExpenses = Cents.toAmount(totalExpenseCents);
 
         return ExpenseSummaryDTO.builder()
                 .userId(userId)
-                .username(user.getUsername())
+                .username(username)
                 .totalExpenses(totalExpenses)
                 .totalCredits(totalCredits)
-                .netBalance(netBalance)
-                .expenseCount(expenseCount)
-                .period(startDate + " to " + endDate)
+                .netBalance(totalCredits.subtract(totalExpenses))
+                .expenseCount((int) expenseCount)
+                .creditCount((int) creditCount)
+                .period(period)
                 .categoryBreakdown(categoryBreakdown)
                 .build();
     }
@@ -211,12 +278,18 @@ public class ExpenseService {
     /**
      * Update expense
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ExpenseDTO updateExpense(Long id, ExpenseDTO expenseDTO) {
+        // Each attempt runs in its own transaction
+        return optimisticLockRetryService.execute(() -> applyExpenseUpdate(id, expenseDTO));
+    }
+
+    private ExpenseDTO applyExpenseUpdate(Long id, ExpenseDTO expenseDTO) {
         Expense expense = expenseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Expense", "id", id));
 
         if (expenseDTO.getAmount() != null)
-            expense.setAmount(expenseDTO.getAmount());
+            expense.setAmount(Cents.round(expenseDTO.getAmount()));
         if (expenseDTO.getDescription() != null)
             expense.setDescription(expenseDTO.getDescription());
         if (expenseDTO.getExpenseDate() != null)
@@ -233,9 +306,10 @@ public class ExpenseService {
         }
 
         Expense updatedExpense = expenseRepository.save(expense);
+        dataVersionService.bump(expense.getUser().getId());
 
         // Check for threshold breaches
-        alertService.checkThresholdBreaches(expense.getUser().getId());
+        alertService.updateThresholdStates(expense.getUser().getId());
 
         return mapToDTO(updatedExpense);
     }
@@ -247,6 +321,7 @@ public class ExpenseService {
         Expense expense = expenseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Expense", "id", id));
         expenseRepository.delete(expense);
+        dataVersionService.bump(expense.getUser().getId());
     }
 
     /**
@@ -262,6 +337,8 @@ public class ExpenseService {
                 .merchantName(expense.getMerchantName())
                 .isRecurring(expense.getIsRecurring())
                 .recurringFrequency(expense.getRecurringFrequency())
+                .nextOccurrenceDate(expense.getNextOccurrenceDate())
+                .recurringSourceId(expense.getRecurringSourceId())
                 .userId(expense.getUser().getId())
                 .categoryId(expense.getCategory().getId())
                 .categoryName(expense.getCategory().getName())
@@ -0,0 +1,155 @@
+package com.cashflow.service;
+
+import com.cashflow.repository.CategoryRepository;
+import com.cashflow.repository.ExpenseRepository;
+import com.cashflow.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory cache of per-user columnar ledgers for analytics
+ * A ledger is loaded on first use with two projection queries and reused
+ * while the user's data version is unchanged, so every instance sees writes
+ * made through any other instance. Writes also evict the local entry once
+ * their transaction commits. Least recently used ledgers are dropped when
+ * the total size exceeds the memory budget.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerCacheService {
+
+    private final ExpenseRepository expenseRepository;
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    /** Access-ordered, guarded by itself */
+    private final LinkedHashMap<Long, UserLedger> ledgers = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong cachedBytes = new AtomicLong();
+    private Counter hitCounter;
+    private Counter missCounter;
+
+    @Value("${app.ledger-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.ledger-cache.months:13}")
+    private int months;
+
+    @Value("${app.ledger-cache.max-size:64MB}")
+    private DataSize maxSize;
+
+    @PostConstruct
+    void registerMetrics() {
+        meterRegistry.gauge("cashflow.ledger-cache.bytes", cachedBytes);
+        hitCounter = meterRegistry.counter("cashflow.ledger-cache.lookups", "result", "hit");
+        missCounter = meterRegistry.counter("cashflow.ledger-cache.lookups", "result", "miss");
+    }
+
+    /**
+     * Get a ledger of the user holding at least every expense dated from the given day on
+     * The version is read before the rows, so a ledger is never newer than
+     * the version it is tagged with; at worst it is reloaded once too often.
+     */
+    @Transactional(readOnly = true)
+    public UserLedger getLedger(Long userId, LocalDate from) {
+        Long version = userRepository.findDataVersionById(userId).orElse(null);
+        if (version == null) {
+            return UserLedger.empty(from);
+        }
+
+        UserLedger cached;
+        synchronized (ledgers) {
+            cached = ledgers.get(userId);
+        }
+        if (cached != null && cached.getDataVersion() == version && cached.covers(from)) {
+            hitCounter.increment();
+            return cached;
+        }
+        missCounter.increment();
+
+        LocalDate windowStart = YearMonth.now().minusMonths(months - 1L).atDay(1);
+        LocalDate loadFrom = from.isBefore(windowStart) ? from : windowStart;
+        UserLedger ledger = UserLedger.of(version, loadFrom,
+                expenseRepository.getLedgerColumns(userId, loadFrom),
+                categoryRepository.getIdsAndNamesByUserId(userId));
+        if (enabled) {
+            put(userId, ledger);
+        }
+        return ledger;
+    }
+
+    /**
+     * Drop the cached ledgers of the given users once the current transaction commits
+     */
+    public void evictAfterCommit(Collection<Long> userIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(userIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(userIds);
+            }
+        });
+    }
+
+    /**
+     * Drop the cached ledgers of the given users
+     */
+    public void evict(Collection<Long> userIds) {
+        synchronized (ledgers) {
+            for (Long userId : userIds) {
+                UserLedger removed = ledgers.remove(userId);
+                if (removed != null) {
+                    cachedBytes.addAndGet(-removed.estimatedBytes());
+                }
+            }
+        }
+    }
+
+    private void put(Long userId, UserLedger ledger) {
+        long bytes = ledger.estimatedBytes();
+        long budget = maxSize.toBytes();
+        if (bytes > budget) {
+            log.debug("Ledger of user {} ({} bytes) exceeds the cache budget, not cached", userId, bytes);
+            return;
+        }
+        synchronized (ledgers) {
+            UserLedger previous = ledgers.get(userId);
+            // A concurrent load may already have cached a newer version
+            if (previous != null && previous.getDataVersion() > ledger.getDataVersion()) {
+                return;
+            }
+            ledgers.put(userId, ledger);
+            long total = cachedBytes.addAndGet(bytes - (previous != null ? previous.estimatedBytes() : 0));
+            Iterator<Map.Entry<Long, UserLedger>> eldest = ledgers.entrySet().iterator();
+            while (total > budget && eldest.hasNext()) {
+                Map.Entry<Long, UserLedger> entry = eldest.next();
+                if (entry.getKey().equals(userId)) {
+                    continue;
+                }
+                total = cachedBytes.addAndGet(-entry.getValue().estimatedBytes());
+                eldest.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.cashflow.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free in-process token buckets
+ * Each bucket is a single AtomicLong holding its theoretical arrival time
+ * (GCRA): the instant at which the bucket would be full again. A request is
+ * allowed while that instant is at most capacity refill periods ahead and
+ * moves it one period further with a compare-and-set. Full buckets carry no
+ * state and are dropped by a sweep that runs at most once a minute; above
+ * maxKeys new keys share one overflow bucket until the sweep makes room.
+ */
+public class LocalRateLimitBackend implements RateLimitBackend {
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final String OVERFLOW_KEY = "*";
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime() + SWEEP_INTERVAL_NANOS);
+    private final int maxKeys;
+
+    public LocalRateLimitBackend(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    @Override
+    public long tryAcquire(String key, int capacity, long refillNanos) {
+        sweepIfDue(System.nanoTime());
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(buckets.size() < maxKeys ? key : OVERFLOW_KEY,
+                    k -> new AtomicLong(System.nanoTime()));
+        }
+        long tolerance = capacity * refillNanos;
+        while (true) {
+            long now = System.nanoTime();
+            long arrival = bucket.get();
+            long next = (arrival - now > 0 ? arrival : now) + refillNanos;
+            long wait = next - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drop full buckets
+     * A request racing with the removal may refill its bucket early, which
+     * only ever allows one request too many.
+     */
+    private void sweepIfDue(long now) {
+        long due = nextSweep.get();
+        if (now - due < 0 || !nextSweep.compareAndSet(due, now + SWEEP_INTERVAL_NANOS)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+}
@@ -0,0 +1,70 @@
+package com.cashflow.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs read-modify-write updates of versioned entities with retry
+ * Every attempt is its own transaction, so after a version conflict the
+ * update is reapplied to the rows as the concurrent writer left them. A
+ * short random pause before each retry keeps the same writers from
+ * colliding again. Callers must not already be in a transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OptimisticLockRetryService {
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private Counter retryCounter;
+
+    @Value("${app.optimistic-lock.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${app.optimistic-lock.backoff-millis:5}")
+    private long backoffMillis;
+
+    @PostConstruct
+    void registerMetrics() {
+        retryCounter = meterRegistry.counter("cashflow.optimistic-lock.retries");
+    }
+
+    /**
+     * Run an update, retrying it on an optimistic-lock conflict
+     * The last conflict is rethrown once maxAttempts are used up.
+     */
+    public <T> T execute(Supplier<T> update) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> update.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                retryCounter.increment();
+                log.debug("Concurrent update conflict, retrying (attempt {} of {})", attempt + 1, maxAttempts);
+                pause(attempt);
+            }
+        }
+    }
+
+    private void pause(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMillis * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.cashflow.service;
+
+import com.cashflow.model.Threshold;
+import com.cashflow.repository.ExpenseRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spending of one user in the current day, week, month and year, per category and overall
+ * Built from one grouped query for any number of users, so every threshold of
+ * those users can be priced without a query of its own.
+ */
+public final class PeriodSpending {
+
+    private static final PeriodSpending NONE = new PeriodSpending();
+
+    /** [day, week, month, year] totals in cents per category id; the null key holds the overall total */
+    private final Map<Long, long[]> totals = new HashMap<>();
+
+    private PeriodSpending() {
+    }
+
+    /**
+     * Load the period spending up to today of the given users, keyed by user id
+     * Users without expenses in the current year or week are absent.
+     */
+    public static Map<Long, PeriodSpending> load(ExpenseRepository expenseRepository, Collection<Long> userIds,
+            LocalDate today) {
+        LocalDate weekStart = Threshold.periodStart("WEEKLY", today);
+        LocalDate yearStart = Threshold.periodStart("YEARLY", today);
+        Map<Long, PeriodSpending> spending = new HashMap<>();
+        for (Object[] row : expenseRepository.getPeriodSpendingByUserIdsAndCategory(userIds, today,
+                weekStart, Threshold.periodStart("MONTHLY", today), yearStart,
+                weekStart.isBefore(yearStart) ? weekStart : yearStart)) {
+            PeriodSpending userSpending = spending.computeIfAbsent((Long) row[0], id -> new PeriodSpending());
+            long[] overall = userSpending.totals.computeIfAbsent(null, id -> new long[4]);
+            long[] totals = userSpending.totals.computeIfAbsent((Long) row[1], id -> new long[4]);
+            for (int i = 0; i < 4; i++) {
+                long cents = Cents.ofNullable((BigDecimal) row[i + 2]);
+                totals[i] = Cents.add(totals[i], cents);
+                overall[i] = Cents.add(overall[i], cents);
+            }
+        }
+        return spending;
+    }
+
+    /**
+     * Load the period spending up to today of one user
+     */
+    public static PeriodSpending load(ExpenseRepository expenseRepository, Long userId, LocalDate today) {
+        return load(expenseRepository, List.of(userId), today).getOrDefault(userId, NONE);
+    }
+
+    /**
+     * Spending in cents of a category, or overall for a null category, in the current period of the given type
+     */
+    public long centsFor(Long categoryId, String thresholdType) {
+        long[] categoryTotals = totals.get(categoryId);
+        return categoryTotals != null ? categoryTotals[periodIndex(thresholdType)] : 0;
+    }
+
+    /**
+     * Position of a threshold type's total in the spending arrays
+     */
+    private static int periodIndex(String thresholdType) {
+        String type = thresholdType != null ? thresholdType.toUpperCase() : "MONTHLY";
+        return switch (type) {
+            case "DAILY" -> 0;
+            case "WEEKLY" -> 1;
+            case "YEARLY" -> 3;
+            default -> 2;
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package com.cashflow.service;
+
+/**
+ * Storage for per-key rate limit buckets
+ * The in-process LocalRateLimitBackend is used unless the application
+ * defines a bean of this type, e.g. one on a shared store so that every
+ * instance enforces the same limit per user.
+ */
+public interface RateLimitBackend {
+
+    /**
+     * Take one request from a key's bucket of the given capacity that regains
+     * one request every refillNanos
+     * Returns 0 if the request is allowed, otherwise the nanoseconds until it would be.
+     */
+    long tryAcquire(String key, int capacity, long refillNanos);
+}
@@ -0,0 +1,211 @@
+package com.cashflow.service;
+
+import com.cashflow.model.Expense;
+import com.cashflow.repository.ExpenseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service that materializes occurrences of recurring expenses
+ * Each run works through user id ranges in parallel, one batch of source
+ * expenses per transaction. Generated rows are keyed on (source expense,
+ * occurrence date) by a unique constraint, so overlapping runs on several
+ * instances cannot double-insert.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "app.recurring.enabled", havingValue = "true", matchIfMissing = true)
+public class RecurringExpenseService {
+
+    private static final List<String> FREQUENCIES = List.of("DAILY", "WEEKLY", "MONTHLY", "YEARLY");
+
+    private final ExpenseRepository expenseRepository;
+    private final DataVersionService dataVersionService;
+    private final AlertService alertService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ShardRouter shardRouter;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private Counter materializedCounter;
+
+    @Value("${app.recurring.lookahead-days:0}")
+    private int lookaheadDays;
+
+    @Value("${app.recurring.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.recurring.parallelism:4}")
+    private int parallelism;
+
+    @PostConstruct
+    void registerMetrics() {
+        meterRegistry.gauge("cashflow.recurring.backlog", backlog);
+        materializedCounter = meterRegistry.counter("cashflow.recurring.materialized");
+    }
+
+    /**
+     * Materialize every occurrence due up to today (plus the lookahead), shard by shard
+     */
+    @Scheduled(initialDelayString = "${app.recurring.initial-delay:PT1M}",
+            fixedDelayString = "${app.recurring.interval:PT1H}")
+    public void materializeDueExpenses() {
+        LocalDate horizon = LocalDate.now().plusDays(lookaheadDays);
+        long[] stillDue = new long[1];
+        shardRouter.forEachShard(shard -> stillDue[0] += materializeShard(shard, horizon));
+        backlog.set(stillDue[0]);
+    }
+
+    /**
+     * Materialize the due occurrences of one shard's users, returning the sources still due
+     */
+    private long materializeShard(int shard, LocalDate horizon) {
+        long due = expenseRepository.countDueRecurringExpenses(FREQUENCIES, horizon);
+        if (due == 0) {
+            return 0;
+        }
+
+        Object[] userIdRange = expenseRepository.getDueRecurringUserIdRange(FREQUENCIES, horizon).get(0);
+        long minUserId = (Long) userIdRange[0];
+        long maxUserId = (Long) userIdRange[1];
+        int partitions = (int) Math.max(1, Math.min(parallelism, maxUserId - minUserId + 1));
+        long rangeSize = (maxUserId - minUserId) / partitions + 1;
+
+        long started = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(partitions);
+        int created = 0;
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < partitions; i++) {
+                long fromUserId = minUserId + i * rangeSize;
+                long toUserId = Math.min(maxUserId, fromUserId + rangeSize - 1);
+                results.add(executor.submit(() -> ShardContext.call(shard,
+                        () -> materializeUserRange(fromUserId, toUserId, horizon))));
+            }
+            for (Future<Integer> result : results) {
+                created += result.get();
+            }
+        } catch (Exception e) {
+            log.error("Recurring expense materialization failed: ", e);
+        } finally {
+            executor.shutdown();
+        }
+
+        long stillDue = expenseRepository.countDueRecurringExpenses(FREQUENCIES, horizon);
+        log.info("Materialized {} recurring expense occurrences on shard {} in {} ms, {} sources still due",
+                created, shard, System.currentTimeMillis() - started, stillDue);
+        return stillDue;
+    }
+
+    /**
+     * Work through the due sources of one user id range, batch by batch
+     */
+    private int materializeUserRange(long fromUserId, long toUserId, LocalDate horizon) {
+        int created = 0;
+        long afterId = 0;
+        while (true) {
+            List<Expense> batch = expenseRepository.findDueRecurringExpenses(
+                    FREQUENCIES, horizon, fromUserId, toUserId, afterId, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return created;
+            }
+            afterId = batch.get(batch.size() - 1).getId();
+
+            try {
+                created += transactionTemplate.execute(status -> materializeBatch(batch, horizon));
+            } catch (DataIntegrityViolationException e) {
+                // Another instance got to part of this batch first; redo it source by source
+                for (Expense source : batch) {
+                    try {
+                        created += transactionTemplate.execute(status -> materializeBatch(List.of(source), horizon));
+                    } catch (DataIntegrityViolationException ignored) {
+                        log.debug("Occurrences of recurring expense {} already materialized", source.getId());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Insert the due occurrences of a batch of sources and advance their cursors
+     * Thresholds of the affected users are re-evaluated in the same
+     * transaction, as after addExpense: the data-version bumps hold the row
+     * locks alert recording relies on, and flags and alerts commit with the
+     * occurrences that caused them.
+     */
+    private int materializeBatch(List<Expense> sources, LocalDate horizon) {
+        List<Expense> occurrences = new ArrayList<>();
+        Set<Long> userIds = new HashSet<>();
+
+        for (Expense source : sources) {
+            long n = firstPendingOccurrence(source);
+            LocalDate date;
+            while (!(date = source.nthOccurrence(n)).isAfter(horizon)) {
+                occurrences.add(Expense.builder()
+                        .amount(source.getAmount())
+                        .description(source.getDescription())
+                        .expenseDate(date)
+                        .paymentMethod(source.getPaymentMethod())
+                        .merchantName(source.getMerchantName())
+                        .isRecurring(false)
+                        .recurringSourceId(source.getId())
+                        .user(source.getUser())
+                        .category(source.getCategory())
+                        .build());
+                n++;
+            }
+            expenseRepository.updateNextOccurrenceDate(source.getId(), date);
+            userIds.add(source.getUser().getId());
+        }
+
+        expenseRepository.saveAll(occurrences);
+        userIds.forEach(dataVersionService::bump);
+        userIds.forEach(alertService::updateThresholdStates);
+        materializedCounter.increment(occurrences.size());
+        return occurrences.size();
+    }
+
+    /**
+     * Index of the first occurrence not yet materialized for a source
+     */
+    private long firstPendingOccurrence(Expense source) {
+        LocalDate next = source.getNextOccurrenceDate();
+        if (next == null) {
+            return 1;
+        }
+        ChronoUnit unit = switch (source.getRecurringFrequency().toUpperCase()) {
+            case "DAILY" -> ChronoUnit.DAYS;
+            case "WEEKLY" -> ChronoUnit.WEEKS;
+            case "MONTHLY" -> ChronoUnit.MONTHS;
+            default -> ChronoUnit.YEARS;
+        };
+        // between() under-counts when month ends were clamped, so step up to the cursor
+        long n = Math.max(1, unit.between(source.getExpenseDate(), next));
+        while (source.nthOccurrence(n).isBefore(next)) {
+            n++;
+        }
+        return n;
+    }
+}
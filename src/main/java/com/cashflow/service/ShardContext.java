@@ -0,0 +1,53 @@
+package com.cashflow.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard the current thread works on
+ * Set per request from the user or entity id in the URL or body, and per
+ * shard by background jobs, before any transaction starts: the routing
+ * DataSource picks the connection and the id generators the id range from
+ * it. Threads without a shard use shard 0, which is also the only shard
+ * when sharding is off.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard != null ? shard : 0;
+    }
+
+    public static boolean isSet() {
+        return CURRENT.get() != null;
+    }
+
+    public static void set(int shard) {
+        CURRENT.set(shard);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Run work on a shard and restore the previous shard afterwards
+     */
+    public static <T> T call(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
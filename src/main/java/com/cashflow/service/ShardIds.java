@@ -0,0 +1,36 @@
+package com.cashflow.service;
+
+/**
+ * Shard-aware ids: the shard index sits in the bits above the per-shard sequence value
+ * Every id therefore names the shard holding its row, so a request for an
+ * expense, category or user by id needs no lookup to be routed. Shard 0 ids
+ * are plain sequence values, which keeps ids written before sharding valid.
+ * Ids stay below 2^53 and survive JSON clients that parse numbers as doubles.
+ */
+public final class ShardIds {
+
+    public static final int SHARD_SHIFT = 44;
+    public static final int MAX_SHARDS = 1 << (53 - SHARD_SHIFT);
+
+    private static final long LOCAL_ID_MASK = (1L << SHARD_SHIFT) - 1;
+
+    private ShardIds() {
+    }
+
+    /**
+     * Shard index of an id; meaningless for negative ids
+     */
+    public static int shardOf(long id) {
+        return (int) (id >>> SHARD_SHIFT);
+    }
+
+    /**
+     * Id of a row on the given shard from that shard's sequence value
+     */
+    public static long toGlobalId(int shard, long localId) {
+        if ((localId & ~LOCAL_ID_MASK) != 0) {
+            throw new IllegalStateException("Sequence value " + localId + " does not fit the shard id layout");
+        }
+        return ((long) shard << SHARD_SHIFT) | localId;
+    }
+}
@@ -0,0 +1,131 @@
+package com.cashflow.service;
+
+import com.cashflow.config.ShardRoutingDataSource;
+import com.cashflow.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Maps users to shards and runs work on one or every shard
+ * All rows of a user live on the user's shard, and every id names its shard
+ * (see ShardIds), so requests are routed by id. Lookups by username, email
+ * or Google id ask each shard in turn; new users are spread by a hash of
+ * their username. Without app.sharding.enabled there is a single shard 0
+ * and nothing here queries the database.
+ *
+ * The shard count is that of the routing DataSource, not the property: an
+ * AOT build fixes whether ShardingConfig exists, so startup fails if the
+ * flag and the DataSource disagree rather than treating one database as
+ * several shards.
+ */
+@Service
+public class ShardRouter {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int shardCount;
+
+    public ShardRouter(UserRepository userRepository, PlatformTransactionManager transactionManager,
+            DataSource dataSource, @Value("${app.sharding.enabled:false}") boolean enabled) {
+        ShardRoutingDataSource shards = shardRouting(dataSource);
+        if (enabled != (shards != null)) {
+            throw new IllegalStateException("app.sharding.enabled=" + enabled + " but the DataSource is "
+                    + (enabled ? "not " : "") + "sharded; an AOT image keeps the value it was built with");
+        }
+        this.userRepository = userRepository;
+        this.shardCount = shards != null ? shards.getShards().size() : 1;
+        // Lookups may run while another shard's transaction is open on this thread
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    private static ShardRoutingDataSource shardRouting(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(ShardRoutingDataSource.class)
+                    ? dataSource.unwrap(ShardRoutingDataSource.class) : null;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot inspect the DataSource", e);
+        }
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Shard of a user or entity id; ids of no configured shard go to shard 0, where they are not found
+     */
+    public int shardOf(long id) {
+        int shard = ShardIds.shardOf(id);
+        return shard < shardCount ? shard : 0;
+    }
+
+    /**
+     * Shard for a new user, from a stable hash of its username (or email)
+     */
+    public int shardForNewUser(String key) {
+        return key != null ? Math.floorMod(key.hashCode(), shardCount) : 0;
+    }
+
+    /**
+     * Shard of the user matching a lookup, or -1 if no shard has one
+     * With a single shard this is 0 without a query.
+     */
+    public int findUserShard(Predicate<UserRepository> lookup) {
+        if (shardCount == 1) {
+            return 0;
+        }
+        for (int shard = 0; shard < shardCount; shard++) {
+            Boolean found = ShardContext.call(shard,
+                    () -> readOnlyTransaction.execute(status -> lookup.test(userRepository)));
+            if (Boolean.TRUE.equals(found)) {
+                return shard;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Run work on a shard; transactions must start inside it
+     */
+    public <T> T onShard(int shard, Supplier<T> work) {
+        return ShardContext.call(shard, work);
+    }
+
+    /**
+     * Run work on every shard in turn and concatenate the results
+     */
+    public <T> List<T> onEachShard(Supplier<? extends Collection<T>> work) {
+        List<T> results = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            results.addAll(ShardContext.call(shard, work));
+        }
+        return results;
+    }
+
+    /**
+     * Run work on every shard in turn, passing the shard on to threads the work starts
+     */
+    public void forEachShard(IntConsumer work) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            int current = shard;
+            ShardContext.call(shard, () -> {
+                work.accept(current);
+                return null;
+            });
+        }
+    }
+}
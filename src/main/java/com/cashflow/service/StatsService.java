@@ -2,10 +2,9 @@ package com.cashflow.service;
 
 import com.cashflow.dto.MonthlyStatsDTO;
 import com.cashflow.dto.MonthlyTrendDTO;
-import com.cashflow.model.Expense;
-import com.cashflow.repository.ExpenseRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -14,16 +13,16 @@ import java.time.Month;
 import java.time.YearMonth;
 import java.time.format.TextStyle;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Service for generating expense statistics and analytics
  */
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class StatsService {
 
-        private final ExpenseRepository expenseRepository;
+        private final LedgerCacheService ledgerCacheService;
 
         // Predefined colors for pie chart categories
         private static final String[] CATEGORY_COLORS = {
@@ -38,40 +37,30 @@ public class StatsService {
                 YearMonth yearMonth = YearMonth.of(year, month);
                 LocalDate startDate = yearMonth.atDay(1);
                 LocalDate endDate = yearMonth.atEndOfMonth();
+                YearMonth prevMonth = yearMonth.minusMonths(1);
 
-                // Get expenses for the selected month
-                List<Expense> expenses = expenseRepository.findByUserIdAndExpenseDateBetween(
-                                userId, startDate, endDate);
+                UserLedger ledger = ledgerCacheService.getLedger(userId, prevMonth.atDay(1));
 
-                // Calculate totals
-                BigDecimal totalSpent = expenses.stream()
-                                .map(Expense::getAmount)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
+                // Calculate totals in cents; amounts are only built for the DTO
+                long totalCents = ledger.sumCents(startDate, endDate);
+                BigDecimal totalSpent = Cents.toAmount(totalCents);
 
                 int daysInMonth = yearMonth.lengthOfMonth();
                 BigDecimal avgDaily = totalSpent.divide(
                                 BigDecimal.valueOf(daysInMonth), 2, RoundingMode.HALF_UP);
 
-                // Get previous month data for comparison
-                YearMonth prevMonth = yearMonth.minusMonths(1);
-                BigDecimal previousMonthTotal = expenseRepository.getTotalExpensesByUserIdAndDateRange(
-                                userId, prevMonth.atDay(1), prevMonth.atEndOfMonth());
-                if (previousMonthTotal == null)
-                        previousMonthTotal = BigDecimal.ZERO;
+                // Previous month data for comparison
+                long previousCents = ledger.sumCents(prevMonth.atDay(1), prevMonth.atEndOfMonth());
+                BigDecimal previousMonthTotal = Cents.toAmount(previousCents);
 
                 // Calculate change
                 BigDecimal changeAmount = totalSpent.subtract(previousMonthTotal);
-                Double changePercentage = 0.0;
-                if (previousMonthTotal.compareTo(BigDecimal.ZERO) > 0) {
-                        changePercentage = changeAmount
-                                        .divide(previousMonthTotal, 4, RoundingMode.HALF_UP)
-                                        .multiply(BigDecimal.valueOf(100))
-                                        .doubleValue();
-                }
+                Double changePercentage = Cents.percentage(Math.subtractExact(totalCents, previousCents),
+                                previousCents);
 
                 // Category breakdown
                 List<MonthlyStatsDTO.CategoryBreakdown> categoryBreakdown = buildCategoryBreakdown(
-                                expenses, totalSpent);
+                                ledger, startDate, endDate, totalCents);
 
                 // Find top category
                 String topCategoryName = "-";
@@ -83,8 +72,7 @@ public class StatsService {
                 }
 
                 // Daily breakdown
-                List<MonthlyStatsDTO.DailyBreakdown> dailyBreakdown = buildDailyBreakdown(
-                                expenses, yearMonth);
+                List<MonthlyStatsDTO.DailyBreakdown> dailyBreakdown = buildDailyBreakdown(ledger, yearMonth);
 
                 return MonthlyStatsDTO.builder()
                                 .year(year)
@@ -92,7 +80,7 @@ public class StatsService {
                                 .monthName(Month.of(month).getDisplayName(TextStyle.FULL, Locale.ENGLISH))
                                 .totalSpent(totalSpent)
                                 .avgDaily(avgDaily)
-                                .transactionCount(expenses.size())
+                                .transactionCount(ledger.count(startDate, endDate))
                                 .daysInMonth(daysInMonth)
                                 .previousMonthTotal(previousMonthTotal)
                                 .changeAmount(changeAmount)
@@ -111,26 +99,20 @@ public class StatsService {
         public List<MonthlyTrendDTO> getMonthlyTrends(Long userId, int months) {
                 List<MonthlyTrendDTO> trends = new ArrayList<>();
                 YearMonth current = YearMonth.now();
+                UserLedger ledger = ledgerCacheService.getLedger(userId,
+                                current.minusMonths(months - 1L).atDay(1));
 
                 for (int i = months - 1; i >= 0; i--) {
                         YearMonth ym = current.minusMonths(i);
                         LocalDate start = ym.atDay(1);
                         LocalDate end = ym.atEndOfMonth();
 
-                        BigDecimal total = expenseRepository.getTotalExpensesByUserIdAndDateRange(
-                                        userId, start, end);
-                        if (total == null)
-                                total = BigDecimal.ZERO;
-
-                        List<Expense> monthExpenses = expenseRepository.findByUserIdAndExpenseDateBetween(
-                                        userId, start, end);
-
                         trends.add(MonthlyTrendDTO.builder()
                                         .year(ym.getYear())
                                         .month(ym.getMonthValue())
                                         .monthName(ym.getMonth().getDisplayName(TextStyle.SHORT, Locale.ENGLISH))
-                                        .totalSpent(total)
-                                        .transactionCount(monthExpenses.size())
+                                        .totalSpent(Cents.toAmount(ledger.sumCents(start, end)))
+                                        .transactionCount(ledger.count(start, end))
                                         .build());
                 }
 
@@ -143,26 +125,24 @@ public class StatsService {
         public List<MonthlyTrendDTO> getMonthlyTrendsByCategory(Long userId, int months, Long categoryId) {
                 List<MonthlyTrendDTO> trends = new ArrayList<>();
                 YearMonth current = YearMonth.now();
+                UserLedger ledger = ledgerCacheService.getLedger(userId,
+                                current.minusMonths(months - 1L).atDay(1));
+                int categoryIndex = ledger.categoryIndexOf(categoryId);
 
                 for (int i = months - 1; i >= 0; i--) {
                         YearMonth ym = current.minusMonths(i);
                         LocalDate start = ym.atDay(1);
                         LocalDate end = ym.atEndOfMonth();
 
-                        BigDecimal total = expenseRepository.getTotalExpensesByUserIdAndCategoryIdAndDateRange(
-                                        userId, categoryId, start, end);
-                        if (total == null)
-                                total = BigDecimal.ZERO;
-
-                        List<Expense> monthExpenses = expenseRepository.findByUserIdAndCategoryIdAndExpenseDateBetween(
-                                        userId, categoryId, start, end);
+                        long totalCents = categoryIndex < 0 ? 0 : ledger.sumCents(start, end, categoryIndex);
+                        int count = categoryIndex < 0 ? 0 : ledger.count(start, end, categoryIndex);
 
                         trends.add(MonthlyTrendDTO.builder()
                                         .year(ym.getYear())
                                         .month(ym.getMonthValue())
                                         .monthName(ym.getMonth().getDisplayName(TextStyle.SHORT, Locale.ENGLISH))
-                                        .totalSpent(total)
-                                        .transactionCount(monthExpenses.size())
+                                        .totalSpent(Cents.toAmount(totalCents))
+                                        .transactionCount(count)
                                         .build());
                 }
 
@@ -173,46 +153,33 @@ public class StatsService {
          * Build category breakdown with percentages and colors
          */
         private List<MonthlyStatsDTO.CategoryBreakdown> buildCategoryBreakdown(
-                        List<Expense> expenses, BigDecimal totalSpent) {
+                        UserLedger ledger, LocalDate startDate, LocalDate endDate, long totalCents) {
 
-                if (expenses.isEmpty() || totalSpent.compareTo(BigDecimal.ZERO) == 0) {
+                if (totalCents == 0) {
                         return Collections.emptyList();
                 }
 
-                // Group by category
-                Map<String, BigDecimal> categoryTotals = expenses.stream()
-                                .collect(Collectors.groupingBy(
-                                                e -> e.getCategory() != null ? e.getCategory().getName()
-                                                                : "Uncategorized",
-                                                Collectors.reducing(BigDecimal.ZERO, Expense::getAmount,
-                                                                BigDecimal::add)));
-
-                Map<String, Long> categoryIds = expenses.stream()
-                                .filter(e -> e.getCategory() != null)
-                                .collect(Collectors.toMap(
-                                                e -> e.getCategory().getName(),
-                                                e -> e.getCategory().getId(),
-                                                (a, b) -> a));
-
-                List<MonthlyStatsDTO.CategoryBreakdown> breakdown = new ArrayList<>();
-                int colorIndex = 0;
+                // Totals per category index, categories without expenses dropped
+                long[] categoryTotals = ledger.sumCentsByCategory(startDate, endDate);
+                List<Integer> spentCategories = new ArrayList<>();
+                for (int index = 0; index < categoryTotals.length; index++) {
+                        if (categoryTotals[index] > 0) {
+                                spentCategories.add(index);
+                        }
+                }
 
                 // Sort by amount descending
-                List<Map.Entry<String, BigDecimal>> sorted = categoryTotals.entrySet().stream()
-                                .sorted(Map.Entry.<String, BigDecimal>comparingByValue().reversed())
-                                .collect(Collectors.toList());
+                spentCategories.sort((a, b) -> Long.compare(categoryTotals[b], categoryTotals[a]));
 
-                for (Map.Entry<String, BigDecimal> entry : sorted) {
-                        Double percentage = entry.getValue()
-                                        .divide(totalSpent, 4, RoundingMode.HALF_UP)
-                                        .multiply(BigDecimal.valueOf(100))
-                                        .doubleValue();
+                List<MonthlyStatsDTO.CategoryBreakdown> breakdown = new ArrayList<>();
+                int colorIndex = 0;
 
+                for (int index : spentCategories) {
                         breakdown.add(MonthlyStatsDTO.CategoryBreakdown.builder()
-                                        .categoryId(categoryIds.getOrDefault(entry.getKey(), 0L))
-                                        .categoryName(entry.getKey())
-                                        .amount(entry.getValue())
-                                        .percentage(percentage)
+                                        .categoryId(ledger.categoryId(index))
+                                        .categoryName(ledger.categoryName(index))
+                                        .amount(Cents.toAmount(categoryTotals[index]))
+                                        .percentage(Cents.percentage(categoryTotals[index], totalCents))
                                         .color(CATEGORY_COLORS[colorIndex % CATEGORY_COLORS.length])
                                         .build());
 
@@ -225,15 +192,9 @@ public class StatsService {
         /**
          * Build daily breakdown for area chart
          */
-        private List<MonthlyStatsDTO.DailyBreakdown> buildDailyBreakdown(
-                        List<Expense> expenses, YearMonth yearMonth) {
+        private List<MonthlyStatsDTO.DailyBreakdown> buildDailyBreakdown(UserLedger ledger, YearMonth yearMonth) {
 
-                // Group expenses by day
-                Map<Integer, BigDecimal> dailyTotals = expenses.stream()
-                                .collect(Collectors.groupingBy(
-                                                e -> e.getExpenseDate().getDayOfMonth(),
-                                                Collectors.reducing(BigDecimal.ZERO, Expense::getAmount,
-                                                                BigDecimal::add)));
+                long[] dailyTotals = ledger.sumCentsByDay(yearMonth.atDay(1), yearMonth.atEndOfMonth());
 
                 List<MonthlyStatsDTO.DailyBreakdown> breakdown = new ArrayList<>();
 
@@ -243,7 +204,7 @@ public class StatsService {
                         breakdown.add(MonthlyStatsDTO.DailyBreakdown.builder()
                                         .day(day)
                                         .date(date.toString())
-                                        .amount(dailyTotals.getOrDefault(day, BigDecimal.ZERO))
+                                        .amount(Cents.toAmount(dailyTotals[day - 1]))
                                         .build());
                 }
 
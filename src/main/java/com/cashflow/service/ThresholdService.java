@@ -12,10 +12,11 @@ import com.cashflow.repository.ThresholdRepository;
 import com.cashflow.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -31,6 +32,8 @@ public class ThresholdService {
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
     private final ExpenseRepository expenseRepository;
+    private final DataVersionService dataVersionService;
+    private final OptimisticLockRetryService optimisticLockRetryService;
 
     /**
      * Set a new threshold
@@ -56,7 +59,7 @@ public class ThresholdService {
         }
 
         Threshold threshold = Threshold.builder()
-                .limitAmount(thresholdDTO.getLimitAmount())
+                .limitAmount(Cents.round(thresholdDTO.getLimitAmount()))
                 .thresholdType(thresholdDTO.getThresholdType() != null ? thresholdDTO.getThresholdType() : "MONTHLY")
                 .alertPercentage(thresholdDTO.getAlertPercentage() != null ? thresholdDTO.getAlertPercentage() : 80)
                 .isActive(true)
@@ -66,6 +69,7 @@ public class ThresholdService {
                 .build();
 
         Threshold savedThreshold = thresholdRepository.save(threshold);
+        dataVersionService.bump(user.getId());
         return mapToDTO(savedThreshold);
     }
 
@@ -87,8 +91,9 @@ public class ThresholdService {
         if (!userRepository.existsById(userId)) {
             throw new ResourceNotFoundException("User", "id", userId);
         }
-        return thresholdRepository.findByUserId(userId).stream()
-                .map(this::mapToDTO)
+        PeriodSpending spending = PeriodSpending.load(expenseRepository, userId, LocalDate.now());
+        return thresholdRepository.findWithDetailsByUserId(userId).stream()
+                .map(threshold -> mapToDTO(threshold, spending))
                 .collect(Collectors.toList());
     }
 
@@ -100,8 +105,9 @@ public class ThresholdService {
         if (!userRepository.existsById(userId)) {
             throw new ResourceNotFoundException("User", "id", userId);
         }
-        return thresholdRepository.findByUserIdAndIsActiveTrue(userId).stream()
-                .map(this::mapToDTO)
+        PeriodSpending spending = PeriodSpending.load(expenseRepository, userId, LocalDate.now());
+        return thresholdRepository.findActiveWithDetailsByUserId(userId).stream()
+                .map(threshold -> mapToDTO(threshold, spending))
                 .collect(Collectors.toList());
     }
 
@@ -121,12 +127,18 @@ public class ThresholdService {
     /**
      * Update threshold
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ThresholdDTO updateThreshold(Long id, ThresholdDTO thresholdDTO) {
+        // Each attempt runs in its own transaction
+        return optimisticLockRetryService.execute(() -> applyThresholdUpdate(id, thresholdDTO));
+    }
+
+    private ThresholdDTO applyThresholdUpdate(Long id, ThresholdDTO thresholdDTO) {
         Threshold threshold = thresholdRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Threshold", "id", id));
 
         if (thresholdDTO.getLimitAmount() != null)
-            threshold.setLimitAmount(thresholdDTO.getLimitAmount());
+            threshold.setLimitAmount(Cents.round(thresholdDTO.getLimitAmount()));
         if (thresholdDTO.getThresholdType() != null)
             threshold.setThresholdType(thresholdDTO.getThresholdType());
         if (thresholdDTO.getAlertPercentage() != null)
@@ -135,6 +147,7 @@ public class ThresholdService {
             threshold.setIsActive(thresholdDTO.getIsActive());
 
         Threshold updatedThreshold = thresholdRepository.save(threshold);
+        dataVersionService.bump(threshold.getUser().getId());
         return mapToDTO(updatedThreshold);
     }
 
@@ -145,34 +158,44 @@ public class ThresholdService {
         Threshold threshold = thresholdRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Threshold", "id", id));
         thresholdRepository.delete(threshold);
+        dataVersionService.bump(threshold.getUser().getId());
     }
 
     /**
      * Toggle threshold active status
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ThresholdDTO toggleThresholdStatus(Long id) {
-        Threshold threshold = thresholdRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Threshold", "id", id));
-        threshold.setIsActive(!threshold.getIsActive());
-        Threshold updatedThreshold = thresholdRepository.save(threshold);
-        return mapToDTO(updatedThreshold);
+        return optimisticLockRetryService.execute(() -> {
+            Threshold threshold = thresholdRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Threshold", "id", id));
+            threshold.setIsActive(!threshold.getIsActive());
+            Threshold updatedThreshold = thresholdRepository.save(threshold);
+            dataVersionService.bump(threshold.getUser().getId());
+            return mapToDTO(updatedThreshold);
+        });
     }
 
     /**
      * Map Threshold entity to DTO with current spending info
      */
     private ThresholdDTO mapToDTO(Threshold threshold) {
-        BigDecimal currentSpending;
-        if (threshold.getCategory() != null) {
-            currentSpending = expenseRepository.getTotalExpensesByUserIdAndCategoryId(
-                    threshold.getUser().getId(), threshold.getCategory().getId());
-        } else {
-            currentSpending = expenseRepository.getTotalExpensesByUserId(threshold.getUser().getId());
-        }
+        return mapToDTO(threshold, PeriodSpending.load(expenseRepository, threshold.getUser().getId(),
+                LocalDate.now()));
+    }
+
+    /**
+     * Map Threshold entity to DTO with the spending of its category (or overall) in its current period,
+     * as the threshold alerts and the breach sweep price it
+     */
+    private ThresholdDTO mapToDTO(Threshold threshold, PeriodSpending spending) {
+        long currentCents = spending.centsFor(
+                threshold.getCategory() != null ? threshold.getCategory().getId() : null,
+                threshold.getThresholdType());
+        BigDecimal currentSpending = Cents.toAmount(currentCents);
 
         BigDecimal remainingAmount = threshold.getLimitAmount().subtract(currentSpending);
-        double usagePercentage = currentSpending.divide(threshold.getLimitAmount(), 4, RoundingMode.HALF_UP)
-                .multiply(BigDecimal.valueOf(100)).doubleValue();
+        double usagePercentage = Cents.percentage(currentCents, Cents.of(threshold.getLimitAmount()));
 
         return ThresholdDTO.builder()
                 .id(threshold.getId())
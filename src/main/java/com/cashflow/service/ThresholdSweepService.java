@@ -0,0 +1,165 @@
+package com.cashflow.service;
+
+import com.cashflow.repository.ExpenseRepository;
+import com.cashflow.repository.ThresholdRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Service that re-evaluates the breach flag of every active threshold
+ * Breach flags are otherwise only refreshed when the user writes an expense,
+ * so a new period would never clear them. Each run works through user id
+ * ranges in parallel; per chunk of users it reads all thresholds and the
+ * period spending per category in two grouped queries and flips changed
+ * flags with two batched UPDATEs.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "app.threshold-sweep.enabled", havingValue = "true", matchIfMissing = true)
+public class ThresholdSweepService {
+
+    private final ThresholdRepository thresholdRepository;
+    private final ExpenseRepository expenseRepository;
+    private final DataVersionService dataVersionService;
+    private final AlertService alertService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ShardRouter shardRouter;
+
+    private Counter breachedCounter;
+    private Counter clearedCounter;
+
+    @Value("${app.threshold-sweep.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.threshold-sweep.parallelism:4}")
+    private int parallelism;
+
+    @PostConstruct
+    void registerMetrics() {
+        breachedCounter = meterRegistry.counter("cashflow.thresholds.sweep", "flag", "breached");
+        clearedCounter = meterRegistry.counter("cashflow.thresholds.sweep", "flag", "cleared");
+    }
+
+    /**
+     * Refresh the breach flags of all active thresholds, shard by shard
+     */
+    @Scheduled(initialDelayString = "${app.threshold-sweep.initial-delay:PT2M}",
+            fixedDelayString = "${app.threshold-sweep.interval:PT1H}")
+    public void sweepThresholds() {
+        shardRouter.forEachShard(this::sweepShard);
+    }
+
+    private void sweepShard(int shard) {
+        Object[] userIdRange = thresholdRepository.getActiveThresholdUserIdRange().get(0);
+        if (userIdRange[0] == null) {
+            return;
+        }
+        long minUserId = (Long) userIdRange[0];
+        long maxUserId = (Long) userIdRange[1];
+        int partitions = (int) Math.max(1, Math.min(parallelism, maxUserId - minUserId + 1));
+        long rangeSize = (maxUserId - minUserId) / partitions + 1;
+        LocalDate today = LocalDate.now();
+
+        long started = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(partitions);
+        int changed = 0;
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < partitions; i++) {
+                long fromUserId = minUserId + i * rangeSize;
+                long toUserId = Math.min(maxUserId, fromUserId + rangeSize - 1);
+                results.add(executor.submit(() -> ShardContext.call(shard,
+                        () -> sweepUserRange(fromUserId, toUserId, today))));
+            }
+            for (Future<Integer> result : results) {
+                changed += result.get();
+            }
+        } catch (Exception e) {
+            log.error("Threshold sweep failed: ", e);
+        } finally {
+            executor.shutdown();
+        }
+
+        log.info("Threshold sweep changed {} breach flags on shard {} in {} ms",
+                changed, shard, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Work through the users of one id range, chunk by chunk
+     */
+    private int sweepUserRange(long fromUserId, long toUserId, LocalDate today) {
+        int changed = 0;
+        long afterUserId = fromUserId - 1;
+        while (true) {
+            List<Long> userIds = thresholdRepository.findActiveThresholdUserIds(
+                    afterUserId, toUserId, PageRequest.of(0, chunkSize));
+            if (userIds.isEmpty()) {
+                return changed;
+            }
+            afterUserId = userIds.get(userIds.size() - 1);
+            changed += transactionTemplate.execute(status -> sweepChunk(userIds, today));
+        }
+    }
+
+    /**
+     * Evaluate the thresholds of a chunk of users and flip changed flags
+     */
+    private int sweepChunk(List<Long> userIds, LocalDate today) {
+        Map<Long, PeriodSpending> spending = PeriodSpending.load(expenseRepository, userIds, today);
+
+        Map<Long, BigDecimal> toBreach = new HashMap<>();
+        List<Long> toClear = new ArrayList<>();
+        Set<Long> changedUserIds = new HashSet<>();
+        for (Object[] row : thresholdRepository.getActiveThresholdStates(userIds)) {
+            PeriodSpending userSpending = spending.get((Long) row[1]);
+            long current = userSpending != null ? userSpending.centsFor((Long) row[2], (String) row[4]) : 0;
+            boolean breached = current >= Cents.of((BigDecimal) row[3]);
+            if (breached != Boolean.TRUE.equals(row[5])) {
+                if (breached) {
+                    toBreach.put((Long) row[0], Cents.toAmount(current));
+                } else {
+                    toClear.add((Long) row[0]);
+                }
+                changedUserIds.add((Long) row[1]);
+            }
+        }
+
+        // Lock the users' version rows first, as per-user writes do, before touching thresholds and alerts
+        dataVersionService.bumpAll(changedUserIds);
+        LocalDateTime now = LocalDateTime.now();
+        int breachedCount = toBreach.isEmpty() ? 0
+                : thresholdRepository.updateBreachedFlags(toBreach.keySet(), true, now);
+        int clearedCount = toClear.isEmpty() ? 0 : thresholdRepository.updateBreachedFlags(toClear, false, now);
+        if (!toBreach.isEmpty()) {
+            alertService.recordSweepBreaches(toBreach);
+        }
+
+        breachedCounter.increment(breachedCount);
+        clearedCounter.increment(clearedCount);
+        return breachedCount + clearedCount;
+    }
+}
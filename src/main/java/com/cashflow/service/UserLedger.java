@@ -0,0 +1,220 @@
+package com.cashflow.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar snapshot of a user's expenses from a start date on
+ * Rows are sorted by day and kept as primitive columns (epoch day, category
+ * index, amount in cents). Aggregations binary-search the date bounds and
+ * walk the arrays without allocating per row; sums are overflow-checked. Instances are immutable and
+ * tagged with the user's data version they were loaded at.
+ */
+public final class UserLedger {
+
+    private final long dataVersion;
+    private final long fromEpochDay;
+    private final int[] epochDays;
+    private final int[] categoryIndexes;
+    private final long[] amountCents;
+    private final long[] categoryIds;
+    private final String[] categoryNames;
+
+    private UserLedger(long dataVersion, long fromEpochDay, int[] epochDays, int[] categoryIndexes,
+            long[] amountCents, long[] categoryIds, String[] categoryNames) {
+        this.dataVersion = dataVersion;
+        this.fromEpochDay = fromEpochDay;
+        this.epochDays = epochDays;
+        this.categoryIndexes = categoryIndexes;
+        this.amountCents = amountCents;
+        this.categoryIds = categoryIds;
+        this.categoryNames = categoryNames;
+    }
+
+    /**
+     * Build a ledger from [expense date, category id, amount] rows sorted by date
+     * and the user's [category id, name] rows
+     */
+    static UserLedger of(long dataVersion, LocalDate from, List<Object[]> expenseRows, List<Object[]> categoryRows) {
+        Map<Long, Integer> indexById = new HashMap<>();
+        long[] categoryIds = new long[categoryRows.size()];
+        String[] categoryNames = new String[categoryRows.size()];
+        for (Object[] row : categoryRows) {
+            int index = indexById.size();
+            categoryIds[index] = (Long) row[0];
+            categoryNames[index] = (String) row[1];
+            indexById.put(categoryIds[index], index);
+        }
+
+        int size = expenseRows.size();
+        int[] epochDays = new int[size];
+        int[] categoryIndexes = new int[size];
+        long[] amountCents = new long[size];
+        for (int i = 0; i < size; i++) {
+            Object[] row = expenseRows.get(i);
+            epochDays[i] = (int) ((LocalDate) row[0]).toEpochDay();
+            Long categoryId = (Long) row[1];
+            Integer index = indexById.get(categoryId);
+            if (index == null) {
+                // Category created after the category rows were read
+                index = categoryIds.length;
+                categoryIds = Arrays.copyOf(categoryIds, index + 1);
+                categoryNames = Arrays.copyOf(categoryNames, index + 1);
+                categoryIds[index] = categoryId;
+                categoryNames[index] = "Uncategorized";
+                indexById.put(categoryId, index);
+            }
+            categoryIndexes[i] = index;
+            amountCents[i] = Cents.of((BigDecimal) row[2]);
+        }
+        return new UserLedger(dataVersion, from.toEpochDay(), epochDays, categoryIndexes, amountCents,
+                categoryIds, categoryNames);
+    }
+
+    /**
+     * Ledger of a user that does not exist
+     */
+    static UserLedger empty(LocalDate from) {
+        return new UserLedger(-1, from.toEpochDay(), new int[0], new int[0], new long[0], new long[0], new String[0]);
+    }
+
+    public long getDataVersion() {
+        return dataVersion;
+    }
+
+    /**
+     * Whether the ledger holds every expense dated on or after the given day
+     */
+    public boolean covers(LocalDate from) {
+        return fromEpochDay <= from.toEpochDay();
+    }
+
+    public int size() {
+        return epochDays.length;
+    }
+
+    /**
+     * Approximate heap footprint, used for the cache memory budget
+     */
+    public long estimatedBytes() {
+        long bytes = 96 + 16L * epochDays.length + 16L * categoryIds.length;
+        for (String name : categoryNames) {
+            bytes += 40 + 2L * name.length();
+        }
+        return bytes;
+    }
+
+    public int categoryCount() {
+        return categoryIds.length;
+    }
+
+    public long categoryId(int index) {
+        return categoryIds[index];
+    }
+
+    public String categoryName(int index) {
+        return categoryNames[index];
+    }
+
+    /**
+     * Index of a category in this ledger, or -1 if it has none
+     */
+    public int categoryIndexOf(long categoryId) {
+        for (int i = 0; i < categoryIds.length; i++) {
+            if (categoryIds[i] == categoryId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Total in cents of the expenses dated within [from, to]
+     */
+    public long sumCents(LocalDate from, LocalDate to) {
+        long total = 0;
+        for (int i = firstRow(from), end = firstRow(to.plusDays(1)); i < end; i++) {
+            total = Cents.add(total, amountCents[i]);
+        }
+        return total;
+    }
+
+    /**
+     * Number of expenses dated within [from, to]
+     */
+    public int count(LocalDate from, LocalDate to) {
+        return firstRow(to.plusDays(1)) - firstRow(from);
+    }
+
+    /**
+     * Total in cents of one category's expenses dated within [from, to]
+     */
+    public long sumCents(LocalDate from, LocalDate to, int categoryIndex) {
+        long total = 0;
+        for (int i = firstRow(from), end = firstRow(to.plusDays(1)); i < end; i++) {
+            if (categoryIndexes[i] == categoryIndex) {
+                total = Cents.add(total, amountCents[i]);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Number of one category's expenses dated within [from, to]
+     */
+    public int count(LocalDate from, LocalDate to, int categoryIndex) {
+        int count = 0;
+        for (int i = firstRow(from), end = firstRow(to.plusDays(1)); i < end; i++) {
+            if (categoryIndexes[i] == categoryIndex) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Totals in cents per category index for expenses dated within [from, to]
+     */
+    public long[] sumCentsByCategory(LocalDate from, LocalDate to) {
+        long[] totals = new long[categoryIds.length];
+        for (int i = firstRow(from), end = firstRow(to.plusDays(1)); i < end; i++) {
+            totals[categoryIndexes[i]] = Cents.add(totals[categoryIndexes[i]], amountCents[i]);
+        }
+        return totals;
+    }
+
+    /**
+     * Totals in cents per day for expenses dated within [from, to]; index 0 is from
+     */
+    public long[] sumCentsByDay(LocalDate from, LocalDate to) {
+        long[] totals = new long[(int) (to.toEpochDay() - from.toEpochDay() + 1)];
+        int fromDay = (int) from.toEpochDay();
+        for (int i = firstRow(from), end = firstRow(to.plusDays(1)); i < end; i++) {
+            int day = epochDays[i] - fromDay;
+            totals[day] = Cents.add(totals[day], amountCents[i]);
+        }
+        return totals;
+    }
+
+    /**
+     * Index of the first row dated on or after the given day
+     */
+    private int firstRow(LocalDate day) {
+        int key = (int) day.toEpochDay();
+        int low = 0;
+        int high = epochDays.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -21,6 +21,7 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final CategoryService categoryService;
 
     /**
      * Register a new user
@@ -72,8 +73,9 @@ public class UserService {
 
     /**
      * Authenticate user with username and password
+     * Not read-only, so the lookup hits the primary and password or status
+     * changes apply immediately
      */
-    @Transactional(readOnly = true)
     public UserDTO authenticateUser(String username, String password) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
@@ -167,6 +169,7 @@ public class UserService {
 
     /**
      * Find or create OAuth2 user (for Google login)
+     * A newly created user also gets the default categories
      */
     public UserDTO findOrCreateOAuth2User(String email, String name, String googleId) {
         // Check if user exists by googleId
@@ -200,7 +203,9 @@ public class UserService {
                 .isActive(true)
                 .build();
 
-        return mapToDTO(userRepository.save(user));
+        User savedUser = userRepository.save(user);
+        categoryService.createDefaultCategories(savedUser.getId());
+        return mapToDTO(savedUser);
     }
 
     /**
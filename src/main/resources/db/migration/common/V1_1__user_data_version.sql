@@ -0,0 +1,7 @@
+-- ===========================================
+-- V1_1: per-user data version behind the HTTP ETags
+-- ===========================================
+
+-- IF NOT EXISTS here and in V1_2 to V1_5: databases last run with
+-- ddl-auto=update may already have these objects when they are baselined
+ALTER TABLE users ADD COLUMN IF NOT EXISTS data_version BIGINT DEFAULT 0 NOT NULL;
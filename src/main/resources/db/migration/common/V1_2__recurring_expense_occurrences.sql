@@ -0,0 +1,10 @@
+-- ===========================================
+-- V1_2: materialized occurrences of recurring expenses
+-- ===========================================
+
+-- Next occurrence still to be materialized (recurring sources only)
+ALTER TABLE expenses ADD COLUMN IF NOT EXISTS next_occurrence_date DATE;
+
+-- Recurring expense a row was materialized from; one row per source and date
+ALTER TABLE expenses ADD COLUMN IF NOT EXISTS recurring_source_id BIGINT;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_expenses_recurring_occurrence ON expenses (recurring_source_id, expense_date);
@@ -0,0 +1,5 @@
+-- ===========================================
+-- V1_3: index behind the category lookups by owner
+-- ===========================================
+
+CREATE INDEX IF NOT EXISTS idx_categories_user_id ON categories (user_id);
@@ -0,0 +1,18 @@
+-- ===========================================
+-- V1_4: monthly credit totals per user, type and source
+-- ===========================================
+
+CREATE TABLE IF NOT EXISTS credit_monthly_rollups (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id         BIGINT NOT NULL,
+    period_year     INTEGER NOT NULL,
+    period_month    INTEGER NOT NULL,
+    credit_type     VARCHAR(255) NOT NULL,
+    source          VARCHAR(255) NOT NULL,
+    total_amount    NUMERIC(14, 2) NOT NULL,
+    credit_count    BIGINT NOT NULL,
+    updated_at      TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_credit_rollups_key UNIQUE (user_id, period_year, period_month, credit_type, source),
+    CONSTRAINT fk_credit_rollups_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
@@ -0,0 +1,24 @@
+-- ===========================================
+-- V1_5: alerts recorded once per threshold period
+-- ===========================================
+
+CREATE TABLE IF NOT EXISTS alert_events (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id             BIGINT NOT NULL,
+    threshold_id        BIGINT NOT NULL,
+    alert_type          VARCHAR(255) NOT NULL,
+    period_start        DATE NOT NULL,
+    category_id         BIGINT,
+    category_name       VARCHAR(255),
+    message             VARCHAR(255) NOT NULL,
+    limit_amount        NUMERIC(10, 2),
+    current_spending    NUMERIC(14, 2),
+    usage_percentage    FLOAT(53),
+    created_at          TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_alert_events_period UNIQUE (threshold_id, alert_type, period_start),
+    CONSTRAINT fk_alert_events_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_alert_events_user_id ON alert_events (user_id, id);
+CREATE INDEX IF NOT EXISTS idx_alert_events_created_at ON alert_events (created_at);
@@ -0,0 +1,91 @@
+-- ===========================================
+-- V1: the original schema, as ddl-auto=update generated it from the
+-- entities before any migration existed
+-- Existing databases are baselined at this version and skip it; later
+-- additions belong in V1_1 and up, never here
+-- ===========================================
+
+CREATE TABLE users (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    username        VARCHAR(255) NOT NULL,
+    email           VARCHAR(255) NOT NULL,
+    password        VARCHAR(255),
+    first_name      VARCHAR(255),
+    last_name       VARCHAR(255),
+    phone_number    VARCHAR(255),
+    auth_provider   VARCHAR(255),
+    google_id       VARCHAR(255),
+    is_active       BOOLEAN,
+    created_at      TIMESTAMP(6),
+    updated_at      TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT uk_users_google_id UNIQUE (google_id)
+);
+
+CREATE TABLE categories (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name            VARCHAR(255) NOT NULL,
+    description     VARCHAR(255),
+    color_code      VARCHAR(255),
+    icon_name       VARCHAR(255),
+    is_default      BOOLEAN,
+    user_id         BIGINT NOT NULL,
+    created_at      TIMESTAMP(6),
+    updated_at      TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_categories_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE expenses (
+    id                      BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    amount                  NUMERIC(10, 2) NOT NULL,
+    description             VARCHAR(255),
+    expense_date            DATE NOT NULL,
+    payment_method          VARCHAR(255),
+    merchant_name           VARCHAR(255),
+    receipt_url             VARCHAR(255),
+    is_recurring            BOOLEAN,
+    recurring_frequency     VARCHAR(255),
+    user_id                 BIGINT NOT NULL,
+    category_id             BIGINT NOT NULL,
+    created_at              TIMESTAMP(6),
+    updated_at              TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_expenses_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_expenses_category FOREIGN KEY (category_id) REFERENCES categories (id)
+);
+
+CREATE TABLE credits (
+    id                      BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    amount                  NUMERIC(10, 2) NOT NULL,
+    source                  VARCHAR(255) NOT NULL,
+    description             VARCHAR(255),
+    credit_date             DATE NOT NULL,
+    credit_type             VARCHAR(255),
+    is_recurring            BOOLEAN,
+    recurring_frequency     VARCHAR(255),
+    user_id                 BIGINT NOT NULL,
+    created_at              TIMESTAMP(6),
+    updated_at              TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_credits_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE thresholds (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    limit_amount        NUMERIC(10, 2) NOT NULL,
+    threshold_type      VARCHAR(255),
+    alert_percentage    INTEGER,
+    is_active           BOOLEAN,
+    is_breached         BOOLEAN,
+    last_alert_sent     TIMESTAMP(6),
+    user_id             BIGINT NOT NULL,
+    category_id         BIGINT,
+    created_at          TIMESTAMP(6),
+    updated_at          TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_thresholds_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_thresholds_category FOREIGN KEY (category_id) REFERENCES categories (id)
+);
@@ -0,0 +1,21 @@
+-- ===========================================
+-- V2: indexes for the per-user date-range queries and id sequences
+-- ===========================================
+
+-- Almost every ledger query filters on the owner and a date range
+CREATE INDEX idx_expenses_user_date ON expenses (user_id, expense_date);
+CREATE INDEX idx_credits_user_date ON credits (user_id, credit_date);
+
+-- Foreign keys that are not the leading column of another index
+CREATE INDEX idx_expenses_category_id ON expenses (category_id);
+CREATE INDEX idx_thresholds_category_id ON thresholds (category_id);
+
+-- Id sequences with an increment matching a pooled allocation size of 50,
+-- so inserts can be batched without a round trip per row
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE categories_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE expenses_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE credits_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE thresholds_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE credit_monthly_rollups_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE alert_events_seq START WITH 1 INCREMENT BY 50;
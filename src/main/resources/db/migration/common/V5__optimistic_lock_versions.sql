@@ -0,0 +1,8 @@
+-- ===========================================
+-- V5: optimistic-lock version columns
+-- ===========================================
+
+-- Expenses and thresholds are edited from several devices and by the
+-- background jobs; updates check and increment the version
+ALTER TABLE expenses ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE thresholds ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,10 @@
+-- ===========================================
+-- V6: alert event ids one at a time, in insert order
+-- ===========================================
+
+-- AlertStreamService follows alert_events by id. Pooled blocks would let
+-- one instance insert ids far below those another has already committed.
+ALTER SEQUENCE alert_events_seq INCREMENT BY 1;
+
+-- Events are no longer read by creation time
+DROP INDEX IF EXISTS idx_alert_events_created_at;
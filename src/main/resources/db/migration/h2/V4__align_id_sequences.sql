@@ -0,0 +1,12 @@
+-- ===========================================
+-- V4 (H2): move the id sequences past rows inserted as IDENTITY
+-- ===========================================
+
+-- Same rule as the PostgreSQL version: next value >= max(id) + 50
+ALTER SEQUENCE users_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM users);
+ALTER SEQUENCE categories_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM categories);
+ALTER SEQUENCE expenses_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM expenses);
+ALTER SEQUENCE credits_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM credits);
+ALTER SEQUENCE thresholds_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM thresholds);
+ALTER SEQUENCE credit_monthly_rollups_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM credit_monthly_rollups);
+ALTER SEQUENCE alert_events_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM alert_events);
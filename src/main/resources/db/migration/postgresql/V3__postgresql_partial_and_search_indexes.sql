@@ -0,0 +1,34 @@
+-- ===========================================
+-- V3 (PostgreSQL only): partial indexes and search indexes
+-- ===========================================
+
+-- Threshold checks and the sweep only ever read active thresholds
+CREATE INDEX IF NOT EXISTS idx_thresholds_active_user ON thresholds (user_id) WHERE is_active;
+
+-- Recurring sources are a small fraction of expenses; the materialization
+-- job pages through them by user range and id
+CREATE INDEX IF NOT EXISTS idx_expenses_recurring_sources ON expenses (user_id, id) WHERE is_recurring;
+
+-- Expense full-text search; the expression must stay identical to
+-- ExpenseSearchRepositoryImpl.DOCUMENT
+CREATE INDEX IF NOT EXISTS idx_expenses_search_tsv ON expenses USING gin
+    (to_tsvector('simple', (COALESCE(description, '') || ' ' || COALESCE(merchant_name, ''))));
+
+-- Trigram indexes need pg_trgm; if it cannot be created (missing contrib
+-- package or privilege), search falls back to LIKE matching
+DO $$
+BEGIN
+    CREATE EXTENSION IF NOT EXISTS pg_trgm;
+EXCEPTION WHEN OTHERS THEN
+    RAISE NOTICE 'pg_trgm is not available, expense search will use LIKE matching';
+END $$;
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm') THEN
+        EXECUTE 'CREATE INDEX IF NOT EXISTS idx_expenses_search_trgm ON expenses USING gin '
+            || '((COALESCE(description, '''') || '' '' || COALESCE(merchant_name, '''')) gin_trgm_ops)';
+        EXECUTE 'CREATE INDEX IF NOT EXISTS idx_categories_name_trgm ON categories USING gin '
+            || '(LOWER(name) gin_trgm_ops)';
+    END IF;
+END $$;
@@ -0,0 +1,13 @@
+-- ===========================================
+-- V4 (PostgreSQL): move the id sequences past rows inserted as IDENTITY
+-- ===========================================
+
+-- Entities now draw ids from these sequences with a pooled optimizer: a
+-- fetched value N hands out N-49..N, so the next value must be at least max(id) + 50
+SELECT setval('users_seq', COALESCE(MAX(id), 0) + 50, false) FROM users;
+SELECT setval('categories_seq', COALESCE(MAX(id), 0) + 50, false) FROM categories;
+SELECT setval('expenses_seq', COALESCE(MAX(id), 0) + 50, false) FROM expenses;
+SELECT setval('credits_seq', COALESCE(MAX(id), 0) + 50, false) FROM credits;
+SELECT setval('thresholds_seq', COALESCE(MAX(id), 0) + 50, false) FROM thresholds;
+SELECT setval('credit_monthly_rollups_seq', COALESCE(MAX(id), 0) + 50, false) FROM credit_monthly_rollups;
+SELECT setval('alert_events_seq', COALESCE(MAX(id), 0) + 50, false) FROM alert_events;
@@ -0,0 +1,167 @@
+package com.cashflow.benchmark;
+
+import com.cashflow.dto.CreditDTO;
+import com.cashflow.dto.ExpenseDTO;
+import com.cashflow.dto.ExpenseListDTO;
+import com.cashflow.dto.MonthlyStatsDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic DTO payloads shaped like the expense endpoints' responses
+ * One user, twelve categories, amounts with two decimals and dates spread
+ * over a year; the same seed gives the same rows in every fork.
+ */
+final class BenchmarkData {
+
+    static final long USER_ID = 42L;
+    static final String USERNAME = "benchmark.user";
+
+    private static final String[] CATEGORIES = { "Food", "Transport", "Shopping", "Entertainment", "Bills",
+            "Healthcare", "Education", "Travel", "Groceries", "Rent", "Insurance", "Other" };
+    private static final String[] PAYMENT_METHODS = { "CARD", "CASH", "UPI", "BANK_TRANSFER" };
+    private static final String[] CREDIT_TYPES = { "SALARY", "FREELANCE", "INVESTMENT", "GIFT", "OTHER" };
+    private static final String[] MERCHANTS = { "City Market", "Metro Transit", "Corner Cafe", "Online Store",
+            "Power & Water Co", "Pharmacy Plus" };
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Rows as GET /api/expenses/user/{userId} returns them
+     */
+    static List<ExpenseDTO> expenses(int rows) {
+        Random random = new Random(rows);
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 9, 30);
+        List<ExpenseDTO> expenses = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            int category = random.nextInt(CATEGORIES.length);
+            LocalDate date = start.plusDays(random.nextInt(365));
+            boolean recurring = random.nextInt(20) == 0;
+            expenses.add(ExpenseDTO.builder()
+                    .id(1000L + i)
+                    .amount(BigDecimal.valueOf(100 + random.nextInt(500_000), 2))
+                    .description("Expense " + i)
+                    .expenseDate(date)
+                    .paymentMethod(PAYMENT_METHODS[random.nextInt(PAYMENT_METHODS.length)])
+                    .merchantName(MERCHANTS[random.nextInt(MERCHANTS.length)])
+                    .isRecurring(recurring)
+                    .recurringFrequency(recurring ? "MONTHLY" : null)
+                    .userId(USER_ID)
+                    .categoryId(100L + category)
+                    .categoryName(CATEGORIES[category])
+                    .username(USERNAME)
+                    .nextOccurrenceDate(recurring ? date.plusMonths(1) : null)
+                    .createdAt(createdAt.plusMinutes(i))
+                    .updatedAt(createdAt.plusMinutes(i))
+                    .build());
+        }
+        return expenses;
+    }
+
+    /**
+     * The same rows as GET /api/expenses/user/{userId}/compact returns them
+     */
+    static ExpenseListDTO compactExpenses(int rows) {
+        Map<Long, String> categories = new LinkedHashMap<>();
+        List<ExpenseListDTO.Row> compactRows = new ArrayList<>(rows);
+        for (ExpenseDTO expense : expenses(rows)) {
+            categories.putIfAbsent(expense.getCategoryId(), expense.getCategoryName());
+            compactRows.add(ExpenseListDTO.Row.builder()
+                    .id(expense.getId())
+                    .amount(expense.getAmount())
+                    .description(expense.getDescription())
+                    .expenseDate(expense.getExpenseDate())
+                    .paymentMethod(expense.getPaymentMethod())
+                    .merchantName(expense.getMerchantName())
+                    .isRecurring(expense.getIsRecurring())
+                    .recurringFrequency(expense.getRecurringFrequency())
+                    .categoryId(expense.getCategoryId())
+                    .build());
+        }
+        return ExpenseListDTO.builder()
+                .userId(USER_ID)
+                .username(USERNAME)
+                .categories(categories)
+                .expenses(compactRows)
+                .build();
+    }
+
+    /**
+     * Rows as GET /api/credits/user/{userId} returns them
+     */
+    static List<CreditDTO> credits(int rows) {
+        Random random = new Random(rows);
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 9, 30);
+        List<CreditDTO> credits = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            boolean recurring = random.nextInt(4) == 0;
+            credits.add(CreditDTO.builder()
+                    .id(1000L + i)
+                    .amount(BigDecimal.valueOf(1000 + random.nextInt(1_000_000), 2))
+                    .source("Source " + random.nextInt(20))
+                    .description("Credit " + i)
+                    .creditDate(start.plusDays(random.nextInt(365)))
+                    .creditType(CREDIT_TYPES[random.nextInt(CREDIT_TYPES.length)])
+                    .isRecurring(recurring)
+                    .recurringFrequency(recurring ? "MONTHLY" : null)
+                    .userId(USER_ID)
+                    .username(USERNAME)
+                    .createdAt(createdAt.plusMinutes(i))
+                    .updatedAt(createdAt.plusMinutes(i))
+                    .build());
+        }
+        return credits;
+    }
+
+    /**
+     * A month as GET /api/stats/monthly/{userId} returns it
+     */
+    static MonthlyStatsDTO monthlyStats() {
+        Random random = new Random(31);
+        List<MonthlyStatsDTO.CategoryBreakdown> categories = new ArrayList<>();
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            categories.add(MonthlyStatsDTO.CategoryBreakdown.builder()
+                    .categoryId(100L + i)
+                    .categoryName(CATEGORIES[i])
+                    .amount(BigDecimal.valueOf(random.nextInt(5_000_000), 2))
+                    .percentage(random.nextInt(10_000) / 100.0)
+                    .color("#4F46E5")
+                    .build());
+        }
+        List<MonthlyStatsDTO.DailyBreakdown> days = new ArrayList<>();
+        for (int day = 1; day <= 31; day++) {
+            days.add(MonthlyStatsDTO.DailyBreakdown.builder()
+                    .day(day)
+                    .date(LocalDate.of(2025, 1, day).toString())
+                    .amount(BigDecimal.valueOf(random.nextInt(1_000_000), 2))
+                    .build());
+        }
+        return MonthlyStatsDTO.builder()
+                .year(2025)
+                .month(1)
+                .monthName("January")
+                .totalSpent(new BigDecimal("12345.67"))
+                .avgDaily(new BigDecimal("398.25"))
+                .transactionCount(214)
+                .daysInMonth(31)
+                .previousMonthTotal(new BigDecimal("11020.10"))
+                .changeAmount(new BigDecimal("1325.57"))
+                .changePercentage(12.03)
+                .isIncrease(true)
+                .topCategoryName("Rent")
+                .topCategoryAmount(new BigDecimal("3500.00"))
+                .categoryBreakdown(categories)
+                .dailyBreakdown(days)
+                .build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.cashflow.benchmark;
+
+import com.cashflow.dto.ApiResponse;
+import com.cashflow.dto.CreditDTO;
+import com.cashflow.dto.ExpenseDTO;
+import com.cashflow.dto.MonthlyStatsDTO;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode time and size of JSON vs CBOR responses
+ * Both mappers come from Jackson2ObjectMapperBuilder, as the JSON and CBOR
+ * message converters do, so field names and date handling match. The
+ * setup prints the encoded size of each payload.
+ *
+ *   scripts/benchmark.sh BinaryFormatBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryFormatBenchmark {
+
+    private static final int ROWS = 1000;
+
+    @Param({ "json", "cbor" })
+    private String format;
+
+    @Param({ "expenses", "credits", "stats" })
+    private String payload;
+
+    private ObjectMapper objectMapper;
+    private Object response;
+    private JavaType responseType;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = "cbor".equals(format)
+                ? Jackson2ObjectMapperBuilder.cbor().build()
+                : Jackson2ObjectMapperBuilder.json().build();
+        TypeFactory types = objectMapper.getTypeFactory();
+        switch (payload) {
+            case "expenses" -> {
+                response = ApiResponse.success(BenchmarkData.expenses(ROWS));
+                responseType = types.constructParametricType(ApiResponse.class,
+                        types.constructCollectionType(List.class, ExpenseDTO.class));
+            }
+            case "credits" -> {
+                response = ApiResponse.success(BenchmarkData.credits(ROWS));
+                responseType = types.constructParametricType(ApiResponse.class,
+                        types.constructCollectionType(List.class, CreditDTO.class));
+            }
+            default -> {
+                response = ApiResponse.success(BenchmarkData.monthlyStats());
+                responseType = types.constructParametricType(ApiResponse.class, MonthlyStatsDTO.class);
+            }
+        }
+        encoded = objectMapper.writeValueAsBytes(response);
+        System.out.printf("%n%s %s: %,d B%n", payload, format, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return objectMapper.readValue(encoded, responseType);
+    }
+}
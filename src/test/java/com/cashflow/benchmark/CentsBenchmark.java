@@ -0,0 +1,94 @@
+package com.cashflow.benchmark;
+
+import com.cashflow.dto.ExpenseDTO;
+import com.cashflow.service.Cents;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Category breakdown of a month of expenses in BigDecimal vs long cents
+ * bigDecimal is the stream/Collectors.reducing breakdown the services used
+ * before Cents; cents walks amount and category columns as UserLedger
+ * holds them. Both return the percentage per category, which the setup
+ * checks are equal.
+ *
+ *   scripts/benchmark.sh CentsBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CentsBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private List<ExpenseDTO> expenses;
+    private long[] amountCents;
+    private int[] categoryIndexes;
+    private long[] categoryIds;
+
+    @Setup
+    public void setUp() {
+        expenses = BenchmarkData.expenses(ROWS);
+        categoryIds = expenses.stream().mapToLong(ExpenseDTO::getCategoryId).distinct().sorted().toArray();
+        amountCents = new long[ROWS];
+        categoryIndexes = new int[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            amountCents[i] = Cents.of(expenses.get(i).getAmount());
+            categoryIndexes[i] = Arrays.binarySearch(categoryIds, expenses.get(i).getCategoryId());
+        }
+        double[] expected = bigDecimal().values().stream().mapToDouble(Double::doubleValue).toArray();
+        if (!Arrays.equals(expected, cents())) {
+            throw new IllegalStateException("BigDecimal and cents breakdowns differ");
+        }
+    }
+
+    @Benchmark
+    public Map<Long, Double> bigDecimal() {
+        Map<Long, BigDecimal> totals = expenses.stream()
+                .collect(Collectors.groupingBy(ExpenseDTO::getCategoryId, TreeMap::new,
+                        Collectors.reducing(BigDecimal.ZERO, ExpenseDTO::getAmount, BigDecimal::add)));
+        BigDecimal total = totals.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        Map<Long, Double> percentages = new HashMap<>();
+        totals.forEach((categoryId, amount) -> percentages.put(categoryId, amount
+                .divide(total, 4, RoundingMode.HALF_UP)
+                .multiply(BigDecimal.valueOf(100))
+                .doubleValue()));
+        return new TreeMap<>(percentages);
+    }
+
+    @Benchmark
+    public double[] cents() {
+        long[] totals = new long[categoryIds.length];
+        long total = 0;
+        for (int i = 0; i < amountCents.length; i++) {
+            totals[categoryIndexes[i]] = Cents.add(totals[categoryIndexes[i]], amountCents[i]);
+            total = Cents.add(total, amountCents[i]);
+        }
+        double[] percentages = new double[totals.length];
+        for (int i = 0; i < totals.length; i++) {
+            percentages[i] = Cents.percentage(totals[i], total);
+        }
+        return percentages;
+    }
+}
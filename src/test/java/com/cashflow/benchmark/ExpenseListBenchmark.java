@@ -0,0 +1,93 @@
+package com.cashflow.benchmark;
+
+import com.cashflow.dto.ApiResponse;
+import com.cashflow.dto.ExpenseDTO;
+import com.cashflow.dto.ExpenseListDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization cost and wire size of large expense lists
+ * Compares the full list (user and category repeated on every row) with the
+ * compact list, each with and without the Blackbird module. The setup
+ * prints the plain and gzipped body sizes; gzip uses the default level, as
+ * Tomcat's compression does.
+ *
+ *   scripts/benchmark.sh ExpenseListBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseListBenchmark {
+
+    @Param({ "10000" })
+    private int rows;
+
+    @Param({ "false", "true" })
+    private boolean blackbird;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<List<ExpenseDTO>> fullList;
+    private ApiResponse<ExpenseListDTO> compactList;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Same defaults as the application's mapper (ISO dates, JavaTimeModule)
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        objectMapper = builder.build();
+        fullList = ApiResponse.success(BenchmarkData.expenses(rows));
+        compactList = ApiResponse.success(BenchmarkData.compactExpenses(rows));
+
+        byte[] full = objectMapper.writeValueAsBytes(fullList);
+        byte[] compact = objectMapper.writeValueAsBytes(compactList);
+        System.out.printf("%n%d rows: full %,d B (gzip %,d B), compact %,d B (gzip %,d B)%n",
+                rows, full.length, gzip(full).length, compact.length, gzip(compact).length);
+    }
+
+    @Benchmark
+    public byte[] fullList() throws IOException {
+        return objectMapper.writeValueAsBytes(fullList);
+    }
+
+    @Benchmark
+    public byte[] compactList() throws IOException {
+        return objectMapper.writeValueAsBytes(compactList);
+    }
+
+    @Benchmark
+    public byte[] compactListGzip() throws IOException {
+        return gzip(objectMapper.writeValueAsBytes(compactList));
+    }
+
+    static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
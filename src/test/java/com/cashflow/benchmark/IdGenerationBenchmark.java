@@ -0,0 +1,138 @@
+package com.cashflow.benchmark;
+
+import com.cashflow.CashflowApplication;
+import com.cashflow.dto.ExpenseDTO;
+import com.cashflow.model.Category;
+import com.cashflow.model.Expense;
+import com.cashflow.model.User;
+import com.cashflow.repository.CategoryRepository;
+import com.cashflow.repository.ExpenseRepository;
+import com.cashflow.repository.UserRepository;
+import com.cashflow.service.CategoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Expense and category inserts with pooled-sequence ids vs IDENTITY columns
+ * Starts the application (on a random port) with an in-memory H2 database per
+ * run; identity maps Expense and Category back to IDENTITY through
+ * benchmark/identity-ids.xml. Hibernate creates the schema for either
+ * mapping, with the same hibernate.jdbc.batch_size as the application.
+ * saveAll inserts one transaction of rows expenses; defaultCategories
+ * registers a user and creates its default categories. Rows are deleted
+ * after every iteration.
+ *
+ *   scripts/benchmark.sh IdGenerationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdGenerationBenchmark {
+
+    @Param({ "pooled-sequence", "identity" })
+    private String ids;
+
+    @Param({ "1000" })
+    private int rows;
+
+    private final AtomicLong users = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transaction;
+    private JdbcTemplate jdbcTemplate;
+    private ExpenseRepository expenseRepository;
+    private UserRepository userRepository;
+    private CategoryService categoryService;
+    private List<ExpenseDTO> expenses;
+    private User user;
+    private Category category;
+
+    @Setup(Level.Trial)
+    public void start() {
+        // Arguments, not default properties: they have to win over application.properties
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:ids-" + ids + ";DB_CLOSE_DELAY=-1",
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+        if (ids.equals("identity")) {
+            args.add("--spring.jpa.mapping-resources=benchmark/identity-ids.xml");
+        }
+        context = new SpringApplicationBuilder(CashflowApplication.class)
+                .profiles("test")
+                .run(args.toArray(String[]::new));
+        transaction = context.getBean(TransactionTemplate.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        expenseRepository = context.getBean(ExpenseRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+        categoryService = context.getBean(CategoryService.class);
+
+        expenses = BenchmarkData.expenses(rows);
+        user = userRepository.save(User.builder().username(BenchmarkData.USERNAME)
+                .email(BenchmarkData.USERNAME + "@example.com").build());
+        category = context.getBean(CategoryRepository.class).save(Category.builder()
+                .name("Food").user(user).build());
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteRows() {
+        jdbcTemplate.update("DELETE FROM expenses");
+        jdbcTemplate.update("DELETE FROM categories WHERE user_id <> ?", user.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id <> ?", user.getId());
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Expense> saveAll() {
+        return transaction.execute(status -> expenseRepository.saveAll(expenses.stream()
+                .map(dto -> Expense.builder()
+                        .amount(dto.getAmount())
+                        .description(dto.getDescription())
+                        .expenseDate(dto.getExpenseDate())
+                        .paymentMethod(dto.getPaymentMethod())
+                        .merchantName(dto.getMerchantName())
+                        .user(user)
+                        .category(category)
+                        .build())
+                .toList()));
+    }
+
+    @Benchmark
+    public Long defaultCategories() {
+        String username = "user" + users.incrementAndGet();
+        Long userId = userRepository.save(User.builder().username(username)
+                .email(username + "@example.com").build()).getId();
+        categoryService.createDefaultCategories(userId);
+        return userId;
+    }
+}
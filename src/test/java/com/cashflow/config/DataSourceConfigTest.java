@@ -0,0 +1,80 @@
+package com.cashflow.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read-only transactions run on the replica pool, everything else on the primary
+ * Two embedded H2 databases stand in for the primary and the replica;
+ * DATABASE() tells which one served a statement.
+ */
+class DataSourceConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class,
+                    DataSourceTransactionManagerAutoConfiguration.class, JdbcTemplateAutoConfiguration.class,
+                    TransactionAutoConfiguration.class))
+            .withUserConfiguration(DataSourceConfig.class)
+            .withPropertyValues(
+                    "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+                    "spring.datasource.username=sa",
+                    "spring.datasource.hikari.maximum-pool-size=3",
+                    "spring.datasource.hikari.connection-timeout=4000",
+                    "app.datasource.replica.jdbc-url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+                    "app.datasource.replica.connection-timeout=2000");
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        contextRunner.run(context -> {
+            assertThat(context.getBean(DataSource.class)).isInstanceOf(LazyConnectionDataSourceProxy.class);
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+
+            String write = transactionTemplate.execute(status -> currentDatabase(jdbcTemplate));
+            transactionTemplate.setReadOnly(true);
+            String read = transactionTemplate.execute(status -> currentDatabase(jdbcTemplate));
+
+            assertThat(write).isEqualTo("PRIMARY");
+            assertThat(read).isEqualTo("REPLICA");
+        });
+    }
+
+    @Test
+    void statementsOutsideATransactionUseThePrimary() {
+        contextRunner.run(context ->
+                assertThat(currentDatabase(context.getBean(JdbcTemplate.class))).isEqualTo("PRIMARY"));
+    }
+
+    @Test
+    void replicaInheritsThePrimaryHikariSettings() {
+        contextRunner.run(context -> {
+            HikariDataSource primary = context.getBean("primaryDataSource", HikariDataSource.class);
+            HikariDataSource replica = context.getBean("replicaDataSource", HikariDataSource.class);
+
+            assertThat(replica.getMaximumPoolSize()).isEqualTo(3);
+            assertThat(replica.getConnectionTimeout()).isEqualTo(2000);
+            assertThat(replica.getJdbcUrl()).isEqualTo("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1");
+            assertThat(replica.getPoolName()).isEqualTo(ReadReplicaRoutingDataSource.REPLICA);
+            assertThat(replica.isReadOnly()).isTrue();
+            assertThat(primary.getConnectionTimeout()).isEqualTo(4000);
+            assertThat(primary.getPoolName()).isEqualTo(ReadReplicaRoutingDataSource.PRIMARY);
+        });
+    }
+
+    private static String currentDatabase(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject("SELECT DATABASE()", String.class);
+    }
+}
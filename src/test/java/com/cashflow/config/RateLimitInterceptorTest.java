@@ -0,0 +1,102 @@
+package com.cashflow.config;
+
+import com.cashflow.exception.GlobalExceptionHandler;
+import com.cashflow.service.LocalRateLimitBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Buckets follow the user a request names, in its URL or its JSON body
+ * All requests come from one client address, as they do behind a proxy or NAT.
+ */
+class RateLimitInterceptorTest {
+
+    private static final String ADDRESS = "203.0.113.7";
+
+    private MockMvc mockMvc;
+
+    @RestController
+    static class StubController {
+
+        @PostMapping("/api/ai/chat")
+        Map<String, Object> chat(@RequestBody Map<String, Object> request) {
+            return request;
+        }
+
+        @GetMapping("/api/ai/insights/{userId}")
+        String insights(@PathVariable Long userId) {
+            return "ok";
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        RateLimitInterceptor ai = new RateLimitInterceptor("ai", 5, Duration.ofSeconds(12), 0, 3,
+                new LocalRateLimitBackend(1000), new SimpleMeterRegistry());
+        mockMvc = MockMvcBuilders.standaloneSetup(new StubController())
+                .addMappedInterceptors(new String[] { "/api/ai/**" }, ai)
+                .setControllerAdvice(new RateLimitBodyAdvice(), new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void usersBehindOneAddressDoNotShareTheAiBucket() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            chat(1, status().isOk());
+        }
+        chat(1, status().isTooManyRequests());
+
+        for (int i = 0; i < 5; i++) {
+            chat(2, status().isOk());
+        }
+        chat(2, status().isTooManyRequests());
+    }
+
+    @Test
+    void bodyAndPathUserIdsShareOneBucket() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            chat(1, status().isOk());
+        }
+        mockMvc.perform(get("/api/ai/insights/1").with(request -> {
+            request.setRemoteAddr(ADDRESS);
+            return request;
+        })).andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void cyclingUserIdsIsCappedPerAddress() throws Exception {
+        // The address bucket holds 3 user buckets: 15 requests
+        for (int user = 1; user <= 15; user++) {
+            chat(user, status().isOk());
+        }
+        chat(16, status().isTooManyRequests());
+    }
+
+    private void chat(long userId, ResultMatcher expected) throws Exception {
+        mockMvc.perform(post("/api/ai/chat")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\":" + userId + ",\"message\":\"hi\"}")
+                        .with(request -> {
+                            request.setRemoteAddr(ADDRESS);
+                            return request;
+                        }))
+                .andExpect(expected);
+    }
+}
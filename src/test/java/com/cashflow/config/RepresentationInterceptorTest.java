@@ -0,0 +1,94 @@
+package com.cashflow.config;
+
+import com.cashflow.repository.UserRepository;
+import com.cashflow.service.DataVersionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * JSON and CBOR responses of one data version carry different ETags and Vary: Accept
+ */
+class RepresentationInterceptorTest {
+
+    private MockMvc mockMvc;
+
+    @RestController
+    static class StubController {
+
+        private final DataVersionService dataVersionService;
+
+        StubController(DataVersionService dataVersionService) {
+            this.dataVersionService = dataVersionService;
+        }
+
+        @GetMapping("/api/expenses/user/{userId}")
+        Map<String, Object> expenses(@PathVariable Long userId, WebRequest request) {
+            if (request.checkNotModified(dataVersionService.getETag(userId))) {
+                return null;
+            }
+            return Map.of("userId", userId);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findDataVersionById(1L)).thenReturn(Optional.of(7L));
+        mockMvc = MockMvcBuilders.standaloneSetup(new StubController(new DataVersionService(userRepository, null)))
+                .addMappedInterceptors(new String[] { "/api/**" }, new RepresentationInterceptor())
+                .build();
+    }
+
+    @Test
+    void jsonAndCborGetTheirOwnTags() throws Exception {
+        String json = mockMvc.perform(get("/api/expenses/user/1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String cbor = mockMvc.perform(get("/api/expenses/user/1").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(json).isEqualTo("W/\"1-7\"");
+        assertThat(cbor).isEqualTo("W/\"1-7-cbor\"");
+    }
+
+    @Test
+    void aJsonTagDoesNotRevalidateCbor() throws Exception {
+        mockMvc.perform(get("/api/expenses/user/1").accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"1-7\""))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/expenses/user/1").accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"1-7-cbor\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void wildcardsGetJson() throws Exception {
+        mockMvc.perform(get("/api/expenses/user/1").accept(MediaType.ALL))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1-7\""));
+    }
+}
@@ -0,0 +1,166 @@
+package com.cashflow.config;
+
+import com.cashflow.model.User;
+import com.cashflow.repository.UserRepository;
+import com.cashflow.service.ShardContext;
+import com.cashflow.service.ShardIds;
+import com.cashflow.service.ShardRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * The sharded layout on three in-memory H2 databases
+ * Covers connection routing by ShardContext, shard bits in generated ids,
+ * Flyway on every shard and the fan-out helpers of ShardRouter. Tests run
+ * without a surrounding transaction: the shard has to be chosen before one
+ * starts.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "app.sharding.enabled=true",
+        "app.sharding.shard-count=3",
+        "spring.datasource.url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1",
+        "app.sharding.shards[1].jdbc-url=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1",
+        "app.sharding.shards[2].jdbc-url=jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ ShardingConfig.class, ShardRouter.class, ShardingConfigTest.Metrics.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ShardingConfigTest {
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void connectionsFollowTheShardContext() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        assertThat(currentDatabase(jdbcTemplate)).isEqualTo("SHARD0");
+        for (int shard = 0; shard < 3; shard++) {
+            assertThat(ShardContext.call(shard, () -> currentDatabase(jdbcTemplate))).isEqualTo("SHARD" + shard);
+        }
+        assertThat(ShardContext.isSet()).isFalse();
+    }
+
+    @Test
+    void everyShardIsMigrated() throws SQLException {
+        List<HikariDataSource> shards = dataSource.unwrap(ShardRoutingDataSource.class).getShards();
+
+        assertThat(shards).hasSize(3);
+        List<String> versions = new ArrayList<>();
+        for (HikariDataSource shard : shards) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(shard);
+            versions.add(jdbcTemplate.queryForObject("SELECT \"version\" FROM \"flyway_schema_history\" "
+                    + "WHERE \"success\" ORDER BY \"installed_rank\" DESC LIMIT 1", String.class));
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SEQUENCES "
+                    + "WHERE SEQUENCE_NAME = 'USERS_SEQ'", Integer.class)).isEqualTo(1);
+        }
+        assertThat(versions).doesNotContainNull().containsOnly(versions.get(0));
+    }
+
+    @Test
+    void shardCountComesFromTheDataSource() throws SQLException {
+        HikariDataSource shard0 = dataSource.unwrap(ShardRoutingDataSource.class).getShards().get(0);
+
+        assertThat(shardRouter.getShardCount()).isEqualTo(3);
+        assertThatIllegalStateException()
+                .isThrownBy(() -> new ShardRouter(userRepository, transactionManager, shard0, true))
+                .withMessageContaining("not sharded");
+        assertThatIllegalStateException()
+                .isThrownBy(() -> new ShardRouter(userRepository, transactionManager, dataSource, false));
+    }
+
+    @Test
+    void idsCarryTheShardTheyWereCreatedOn() {
+        for (int shard = 0; shard < 3; shard++) {
+            User user = createUser(shard, "ids" + shard);
+
+            assertThat(ShardIds.shardOf(user.getId())).isEqualTo(shard);
+            assertThat(shardRouter.shardOf(user.getId())).isEqualTo(shard);
+            assertThat(user.getId() & ((1L << ShardIds.SHARD_SHIFT) - 1)).isPositive();
+            for (int other = 0; other < 3; other++) {
+                boolean found = existsOn(other, user.getId());
+                assertThat(found).isEqualTo(other == shard);
+            }
+        }
+    }
+
+    @Test
+    void fanOutVisitsEveryShard() {
+        for (int shard = 0; shard < 3; shard++) {
+            createUser(shard, "fanout" + shard);
+        }
+
+        List<Integer> visited = new ArrayList<>();
+        shardRouter.forEachShard(shard -> {
+            assertThat(ShardContext.current()).isEqualTo(shard);
+            visited.add(shard);
+        });
+        List<String> usernames = shardRouter.onEachShard(() -> readOnly().execute(status ->
+                userRepository.findAll().stream().map(User::getUsername).toList()));
+
+        assertThat(visited).containsExactly(0, 1, 2);
+        assertThat(usernames).contains("fanout0", "fanout1", "fanout2");
+        assertThat(shardRouter.findUserShard(users -> users.existsByUsername("fanout2"))).isEqualTo(2);
+        assertThat(shardRouter.findUserShard(users -> users.existsByUsername("nobody"))).isEqualTo(-1);
+    }
+
+    private User createUser(int shard, String username) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return shardRouter.onShard(shard, () -> transaction.execute(status -> userRepository.save(
+                User.builder().username(username).email(username + "@example.com").build())));
+    }
+
+    private boolean existsOn(int shard, long id) {
+        return shardRouter.onShard(shard, () -> readOnly().execute(status -> userRepository.existsById(id)));
+    }
+
+    private TransactionTemplate readOnly() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction;
+    }
+
+    private static String currentDatabase(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject("SELECT DATABASE()", String.class);
+    }
+}
@@ -0,0 +1,70 @@
+package com.cashflow.repository;
+
+import com.cashflow.model.Threshold;
+import com.cashflow.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+class ThresholdRepositoryTest {
+
+    @Autowired
+    private ThresholdRepository thresholdRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(User.builder().username("flags").email("flags@example.com").build());
+    }
+
+    @Test
+    void updateBreachedFlagsSetsAndClearsNullFlags() {
+        Threshold unsetBreach = persistThreshold(null);
+        Threshold unsetClear = persistThreshold(null);
+        Threshold alreadyBreached = persistThreshold(true);
+
+        assertThat(thresholdRepository.updateBreachedFlags(
+                List.of(unsetBreach.getId(), alreadyBreached.getId()), true, LocalDateTime.now())).isEqualTo(1);
+        assertThat(thresholdRepository.updateBreachedFlags(
+                List.of(unsetClear.getId()), false, LocalDateTime.now())).isEqualTo(1);
+        entityManager.clear();
+
+        assertThat(entityManager.find(Threshold.class, unsetBreach.getId()).getIsBreached()).isTrue();
+        assertThat(entityManager.find(Threshold.class, unsetBreach.getId()).getLastAlertSent()).isNotNull();
+        assertThat(entityManager.find(Threshold.class, unsetClear.getId()).getIsBreached()).isFalse();
+    }
+
+    @Test
+    void updateBreachedFlagsSkipsUnchangedFlags() {
+        Threshold breached = persistThreshold(true);
+        Threshold clear = persistThreshold(false);
+
+        assertThat(thresholdRepository.updateBreachedFlags(
+                List.of(breached.getId()), true, LocalDateTime.now())).isZero();
+        assertThat(thresholdRepository.updateBreachedFlags(
+                List.of(clear.getId()), false, LocalDateTime.now())).isZero();
+    }
+
+    private Threshold persistThreshold(Boolean isBreached) {
+        return entityManager.persistFlushFind(Threshold.builder()
+                .limitAmount(new BigDecimal("100.00"))
+                .isBreached(isBreached)
+                .user(user)
+                .build());
+    }
+}
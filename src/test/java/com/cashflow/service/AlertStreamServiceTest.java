@@ -0,0 +1,59 @@
+package com.cashflow.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AlertStreamServiceTest {
+
+    private static final long WINDOW = 30_000;
+
+    @Test
+    void startsAfterTheLatestEvent() {
+        AlertStreamService.DispatchCursor cursor = new AlertStreamService.DispatchCursor(10);
+
+        assertThat(cursor.floor()).isEqualTo(10);
+        assertThat(cursor.markDelivered(10)).isFalse();
+        assertThat(cursor.markDelivered(11)).isTrue();
+    }
+
+    @Test
+    void deliversEachEventOnce() {
+        AlertStreamService.DispatchCursor cursor = new AlertStreamService.DispatchCursor(0);
+
+        assertThat(cursor.markDelivered(5)).isTrue();
+        cursor.advance(5, 0, WINDOW);
+        assertThat(cursor.markDelivered(5)).isFalse();
+    }
+
+    @Test
+    void keepsRereadingBelowTheHighestIdForOneWindow() {
+        AlertStreamService.DispatchCursor cursor = new AlertStreamService.DispatchCursor(10);
+
+        // Event 12 commits first; 11 belongs to a transaction that is still open
+        cursor.markDelivered(12);
+        cursor.advance(12, 0, WINDOW);
+        assertThat(cursor.floor()).isEqualTo(10);
+
+        // 11 commits 20 s later and is still read from the floor
+        cursor.advance(12, 20_000, WINDOW);
+        assertThat(cursor.floor()).isEqualTo(10);
+        assertThat(cursor.markDelivered(11)).isTrue();
+        assertThat(cursor.markDelivered(12)).isFalse();
+
+        // A window after 12 was read the floor moves past it
+        cursor.advance(12, 30_000, WINDOW);
+        assertThat(cursor.floor()).isEqualTo(12);
+        assertThat(cursor.markDelivered(11)).isFalse();
+        assertThat(cursor.markDelivered(13)).isTrue();
+    }
+
+    @Test
+    void floorNeverMovesBackwards() {
+        AlertStreamService.DispatchCursor cursor = new AlertStreamService.DispatchCursor(50);
+
+        cursor.advance(0, 0, WINDOW);
+        cursor.advance(0, 60_000, WINDOW);
+        assertThat(cursor.floor()).isEqualTo(50);
+    }
+}
@@ -0,0 +1,107 @@
+package com.cashflow.service;
+
+import com.cashflow.dto.ExpenseSummaryDTO;
+import com.cashflow.exception.ResourceNotFoundException;
+import com.cashflow.model.Category;
+import com.cashflow.model.Credit;
+import com.cashflow.model.Expense;
+import com.cashflow.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The expense summaries read totals, counts and the category breakdown in one statement
+ */
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+@Import(ExpenseService.class)
+class ExpenseSummaryStatementCountTest {
+
+    @MockBean
+    private AlertService alertService;
+
+    @MockBean
+    private DataVersionService dataVersionService;
+
+    @MockBean
+    private OptimisticLockRetryService optimisticLockRetryService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        user = entityManager.persist(User.builder().username("summary").email("summary@example.com").build());
+        Category food = entityManager.persist(Category.builder().name("Food").user(user).build());
+        Category rent = entityManager.persist(Category.builder().name("Rent").user(user).build());
+        for (int day = 1; day <= 20; day++) {
+            entityManager.persist(Expense.builder().amount(new BigDecimal("12.50"))
+                    .expenseDate(LocalDate.of(2025, 3, day)).user(user).category(food).build());
+        }
+        entityManager.persist(Expense.builder().amount(new BigDecimal("900.00"))
+                .expenseDate(LocalDate.of(2025, 3, 1)).user(user).category(rent).build());
+        entityManager.persist(Expense.builder().amount(new BigDecimal("900.00"))
+                .expenseDate(LocalDate.of(2025, 4, 1)).user(user).category(rent).build());
+        entityManager.persist(Credit.builder().amount(new BigDecimal("3000.00")).source("Salary")
+                .creditDate(LocalDate.of(2025, 3, 1)).user(user).build());
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void overallSummaryIsOneStatement() {
+        ExpenseSummaryDTO summary = expenseService.getUserOverallExpense(user.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(summary.getUsername()).isEqualTo("summary");
+        assertThat(summary.getTotalExpenses()).isEqualByComparingTo("2050.00");
+        assertThat(summary.getTotalCredits()).isEqualByComparingTo("3000.00");
+        assertThat(summary.getExpenseCount()).isEqualTo(22);
+        assertThat(summary.getCategoryBreakdown()).hasSize(2);
+    }
+
+    @Test
+    void dateRangeSummaryIsOneStatement() {
+        ExpenseSummaryDTO summary = expenseService.getExpenseSummaryByDateRange(user.getId(),
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(summary.getTotalExpenses()).isEqualByComparingTo("1150.00");
+        assertThat(summary.getExpenseCount()).isEqualTo(21);
+        assertThat(summary.getCreditCount()).isEqualTo(1);
+    }
+
+    @Test
+    void missingUserIsNotFoundAfterOneStatement() {
+        assertThatThrownBy(() -> expenseService.getUserOverallExpense(-1L))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,105 @@
+package com.cashflow.service;
+
+import com.cashflow.model.AlertEvent;
+import com.cashflow.model.Category;
+import com.cashflow.model.Expense;
+import com.cashflow.model.Threshold;
+import com.cashflow.model.User;
+import com.cashflow.repository.AlertEventRepository;
+import com.cashflow.repository.CategoryRepository;
+import com.cashflow.repository.ExpenseRepository;
+import com.cashflow.repository.ThresholdRepository;
+import com.cashflow.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Occurrences materialized by the recurring job trip thresholds like expenses added through the API
+ * Runs without a surrounding transaction: the job works on its own threads
+ * and has to see the committed source expense.
+ */
+@DataJpaTest(showSql = false, properties = "app.recurring.enabled=true")
+@ActiveProfiles("test")
+@Import({ RecurringExpenseService.class, AlertService.class, ShardRouter.class, RecurringThresholdTest.Metrics.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RecurringThresholdTest {
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockBean
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private RecurringExpenseService recurringExpenseService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private ThresholdRepository thresholdRepository;
+
+    @Autowired
+    private AlertEventRepository alertEventRepository;
+
+    private User user;
+    private Threshold threshold;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder().username("recurring").email("recurring@example.com").build());
+        Category rent = categoryRepository.save(Category.builder().name("Rent").user(user).build());
+        // Dated yesterday, so only the occurrence materialized for today counts in the DAILY period
+        expenseRepository.save(Expense.builder().amount(new BigDecimal("150.00"))
+                .expenseDate(LocalDate.now().minusDays(1)).isRecurring(true).recurringFrequency("DAILY")
+                .user(user).category(rent).build());
+        threshold = thresholdRepository.save(Threshold.builder().limitAmount(new BigDecimal("100.00"))
+                .thresholdType("DAILY").alertPercentage(80).isActive(true).isBreached(false)
+                .user(user).category(rent).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void materializedOccurrencesBreachThresholds() {
+        recurringExpenseService.materializeDueExpenses();
+
+        assertThat(thresholdRepository.findById(threshold.getId()).orElseThrow().getIsBreached()).isTrue();
+        List<AlertEvent> alerts = alertEventRepository.findByUserIdAfter(user.getId(), 0L, PageRequest.of(0, 10));
+        assertThat(alerts).extracting(AlertEvent::getAlertType).containsExactly("BREACH");
+    }
+}
@@ -0,0 +1,93 @@
+package com.cashflow.service;
+
+import com.cashflow.dto.ThresholdDTO;
+import com.cashflow.model.User;
+import com.cashflow.repository.ThresholdRepository;
+import com.cashflow.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Limits with more than two decimals are rounded like the column, not rejected by Cents
+ * Runs without a surrounding transaction: updateThreshold retries in
+ * transactions of its own and has to see the committed threshold.
+ */
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+@Import(ThresholdService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ThresholdLimitRoundingTest {
+
+    @MockBean
+    private DataVersionService dataVersionService;
+
+    @MockBean
+    private OptimisticLockRetryService optimisticLockRetryService;
+
+    @Autowired
+    private ThresholdService thresholdService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ThresholdRepository thresholdRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder().username("rounding").email("rounding@example.com").build());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        when(optimisticLockRetryService.execute(any())).thenAnswer(call ->
+                transaction.execute(status -> ((Supplier<?>) call.getArgument(0)).get()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        thresholdRepository.deleteAll(thresholdRepository.findByUserId(user.getId()));
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void subCentLimitIsRoundedOnCreate() {
+        ThresholdDTO threshold = thresholdService.setThreshold(limit("100.005"));
+
+        assertThat(threshold.getLimitAmount()).isEqualTo(new BigDecimal("100.01"));
+        assertThat(threshold.getUsagePercentage()).isEqualTo(0.0);
+    }
+
+    @Test
+    void subCentLimitIsRoundedOnUpdate() {
+        Long id = thresholdService.setThreshold(limit("100.00")).getId();
+
+        ThresholdDTO threshold = thresholdService.updateThreshold(id, ThresholdDTO.builder()
+                .limitAmount(new BigDecimal("250.004")).build());
+
+        assertThat(threshold.getLimitAmount()).isEqualTo(new BigDecimal("250.00"));
+    }
+
+    private ThresholdDTO limit(String amount) {
+        return ThresholdDTO.builder().userId(user.getId()).limitAmount(new BigDecimal(amount)).build();
+    }
+}
@@ -0,0 +1,134 @@
+package com.cashflow.service;
+
+import com.cashflow.dto.AlertDTO;
+import com.cashflow.dto.ThresholdDTO;
+import com.cashflow.model.Category;
+import com.cashflow.model.Expense;
+import com.cashflow.model.Threshold;
+import com.cashflow.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The threshold lists and alerts price every threshold from one period-spending statement
+ * Each request is the user check, the thresholds with user and category
+ * fetched, and the grouped spending query, however many thresholds there are.
+ */
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+@Import({ ThresholdService.class, AlertService.class })
+class ThresholdStatementCountTest {
+
+    @MockBean
+    private DataVersionService dataVersionService;
+
+    @MockBean
+    private OptimisticLockRetryService optimisticLockRetryService;
+
+    @Autowired
+    private ThresholdService thresholdService;
+
+    @Autowired
+    private AlertService alertService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+    private Category food;
+    private Category rent;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        LocalDate today = LocalDate.now();
+
+        user = entityManager.persist(User.builder().username("limits").email("limits@example.com").build());
+        food = entityManager.persist(Category.builder().name("Food").user(user).build());
+        rent = entityManager.persist(Category.builder().name("Rent").user(user).build());
+        persistExpense(food, "40.00", today);
+        persistExpense(food, "500.00", today.withDayOfMonth(1).minusMonths(1));
+        persistExpense(rent, "900.00", today);
+        persistExpense(rent, "900.00", today.minusYears(1));
+        persistThreshold(null, "900.00", "MONTHLY", true);
+        persistThreshold(food, "100.00", "MONTHLY", true);
+        persistThreshold(rent, "1000.00", "YEARLY", true);
+        persistThreshold(food, "20.00", "WEEKLY", false);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void thresholdListIsThreeStatements() {
+        List<ThresholdDTO> thresholds = thresholdService.getThresholdsByUserId(user.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(thresholds).hasSize(4);
+    }
+
+    @Test
+    void activeThresholdsArePricedInTheirOwnPeriod() {
+        List<ThresholdDTO> thresholds = thresholdService.getActiveThresholds(user.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(thresholds).hasSize(3);
+        assertThat(forCategory(thresholds, null).getCurrentSpending()).isEqualByComparingTo("940.00");
+        assertThat(forCategory(thresholds, food).getCurrentSpending()).isEqualByComparingTo("40.00");
+        assertThat(forCategory(thresholds, rent).getCurrentSpending()).isEqualByComparingTo("900.00");
+        assertThat(forCategory(thresholds, rent).getUsagePercentage()).isEqualTo(90.0);
+    }
+
+    @Test
+    void alertsAreThreeStatementsAndMatchTheThresholds() {
+        List<AlertDTO> alerts = alertService.getThresholdBreachedAlerts(user.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        Map<Long, BigDecimal> spending = thresholdService.getActiveThresholds(user.getId()).stream()
+                .collect(Collectors.toMap(ThresholdDTO::getId, ThresholdDTO::getCurrentSpending));
+        assertThat(alerts).hasSize(2);
+        for (AlertDTO alert : alerts) {
+            assertThat(alert.getCurrentSpending()).isEqualByComparingTo(spending.get(alert.getThresholdId()));
+        }
+    }
+
+    private static ThresholdDTO forCategory(List<ThresholdDTO> thresholds, Category category) {
+        Long categoryId = category != null ? category.getId() : null;
+        return thresholds.stream()
+                .filter(threshold -> Objects.equals(threshold.getCategoryId(), categoryId))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private void persistExpense(Category category, String amount, LocalDate date) {
+        entityManager.persist(Expense.builder().amount(new BigDecimal(amount))
+                .expenseDate(date).user(user).category(category).build());
+    }
+
+    private void persistThreshold(Category category, String limit, String type, boolean active) {
+        entityManager.persist(Threshold.builder().limitAmount(new BigDecimal(limit)).thresholdType(type)
+                .alertPercentage(80).isActive(active).isBreached(false).user(user).category(category).build());
+    }
+}